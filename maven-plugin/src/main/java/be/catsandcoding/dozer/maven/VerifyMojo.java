@@ -0,0 +1,173 @@
+package be.catsandcoding.dozer.maven;
+
+import be.catsandcoding.dozer.Options;
+import be.catsandcoding.dozer.components.Verifier;
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Component;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.Scanner;
+import org.sonatype.plexus.build.incremental.BuildContext;
+
+import javax.xml.bind.JAXBException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Verifies the Dozer mapping files of the project against its compiled classes and resolved dependencies, the
+ * in-process counterpart of the DozerMappingVerification Ant task.
+ * <p>
+ * A full build verifies every mapping file and relies on the progress-file to skip the ones that, like the classes
+ * they refer to, did not change. An incremental build, as run by an IDE, only verifies the changed mapping files,
+ * unless the class output changed as well: then every mapping file that is not up to date is verified again.
+ * Every mapping file that fails is reported as an error on that file before the build fails.
+ */
+@Mojo(name = "verify", defaultPhase = LifecyclePhase.PROCESS_CLASSES,
+        requiresDependencyResolution = ResolutionScope.COMPILE, threadSafe = true)
+public class VerifyMojo extends AbstractMojo {
+    @Parameter(defaultValue = "${project}", readonly = true, required = true)
+    private MavenProject project;
+
+    @Component
+    private BuildContext buildContext;
+
+    /**
+     * The directory holding the mapping files, xml files that are not mapping files are ignored.
+     */
+    @Parameter(property = "dozer.mappingDirectory", defaultValue = "${project.basedir}/src/main/resources")
+    private File mappingDirectory;
+
+    @Parameter(property = "dozer.includes", defaultValue = "**/*.xml")
+    private String[] includes;
+
+    @Parameter(property = "dozer.excludes")
+    private String[] excludes;
+
+    @Parameter(property = "dozer.progressFile", defaultValue = "${project.build.directory}/dozer-mapping-verification.progress")
+    private File progressFile;
+
+    @Parameter(property = "dozer.metricsReport")
+    private File metricsReport;
+
+    @Parameter(property = "dozer.costReport")
+    private File costReport;
+
+    /**
+     * The mappers are generated after compilation, add the directory as a source root of a later build or module.
+     */
+    @Parameter(property = "dozer.generatedSources")
+    private File generatedSources;
+
+    @Parameter(property = "dozer.caseInsensitiveFieldMatchingAllowed", defaultValue = "false")
+    private boolean caseInsensitiveFieldMatchingAllowed;
+
+    @Parameter(property = "dozer.ignoringErrorsAllowed", defaultValue = "false")
+    private boolean ignoringErrorsAllowed;
+
+    @Parameter(property = "dozer.numberOfWorkers", defaultValue = "1")
+    private int numberOfWorkers;
+
+    @Parameter(property = "dozer.streamingEnabled", defaultValue = "false")
+    private boolean streamingEnabled;
+
+    @Parameter(property = "dozer.leanParsingEnabled", defaultValue = "false")
+    private boolean leanParsingEnabled;
+
+    @Parameter(property = "dozer.scanRestrictedToReferencedPackages", defaultValue = "false")
+    private boolean scanRestrictedToReferencedPackages;
+
+    @Parameter(property = "dozer.metadataOnlyVerificationEnabled", defaultValue = "false")
+    private boolean metadataOnlyVerificationEnabled;
+
+    @Parameter(property = "dozer.skip", defaultValue = "false")
+    private boolean skip;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if(skip || !mappingDirectory.isDirectory()) {
+            getLog().info("Dozer mapping verification skipped.");
+            return;
+        }
+
+        List<File> mappings = getMappingsToVerify();
+        if(mappings.isEmpty()) {
+            getLog().info("No changed Dozer mapping files to verify.");
+            return;
+        }
+
+        Map<Path, Exception> failures;
+        try (Verifier verifier = new Verifier(getOptions())) {
+            verifier.collectReferencedPackages(mappingDirectory.toPath());
+            for(File mapping: mappings){
+                buildContext.removeMessages(mapping);
+            }
+            // every file is verified, also when one fails, so the IDE shows every file that fails
+            failures = verifier.verifyFiles(mappingDirectory.toPath(),
+                    mappings.stream().map(File::toPath).collect(Collectors.toList()));
+        } catch (IOException | JAXBException | DependencyResolutionRequiredException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+        failures.forEach((mapping, e) ->
+                buildContext.addMessage(mapping.toFile(), 0, 0, e.getMessage(), BuildContext.SEVERITY_ERROR, e));
+        if(!failures.isEmpty()) {
+            Exception failure = failures.values().iterator().next();
+            throw new MojoFailureException(failure.getMessage(), failure);
+        }
+    }
+
+    private Options getOptions() throws DependencyResolutionRequiredException {
+        Options options = new Options()
+                // the output directory comes first, then the resolved dependencies
+                .withClassPathDirectories(new ArrayList<>(project.getCompileClasspathElements()))
+                .withCaseInsensitiveFieldMatchingAllowed(caseInsensitiveFieldMatchingAllowed)
+                .withIgnoringErrorsAllowed(ignoringErrorsAllowed)
+                .withNumberOfWorkers(numberOfWorkers)
+                .withStreamingEnabled(streamingEnabled)
+                .withLeanParsingEnabled(leanParsingEnabled)
+                .withScanRestrictedToReferencedPackages(scanRestrictedToReferencedPackages)
+                .withMetadataOnlyVerificationEnabled(metadataOnlyVerificationEnabled)
+                .withPathToProgressKeepingFile(progressFile.getPath());
+        if(metricsReport != null){
+            options = options.withPathToMetricsReport(metricsReport.getPath());
+        }
+        if(costReport != null){
+            options = options.withPathToCostReport(costReport.getPath());
+        }
+        if(generatedSources != null){
+            options = options.withPathToGeneratedSources(generatedSources.getPath());
+        }
+        if(!progressFile.getParentFile().isDirectory() && !progressFile.getParentFile().mkdirs()){
+            getLog().warn("Could not create " + progressFile.getParentFile() + ", progress will not be kept.");
+        }
+        return options;
+    }
+
+    private List<File> getMappingsToVerify(){
+        // changed classes may break any mapping, the progress-file tells which ones they actually affect
+        boolean classesChanged = !buildContext.isIncremental()
+                || buildContext.hasDelta(new File(project.getBuild().getOutputDirectory()));
+        Scanner scanner = buildContext.newScanner(mappingDirectory, classesChanged);
+        scanner.setIncludes(includes);
+        scanner.setExcludes(excludes);
+        scanner.scan();
+
+        List<File> mappings = new ArrayList<>();
+        for(String included: scanner.getIncludedFiles()){
+            mappings.add(new File(mappingDirectory, included));
+        }
+        mappings.sort(null);
+        getLog().debug("Dozer mapping files to verify: " + mappings);
+        return mappings;
+    }
+}
@@ -0,0 +1,179 @@
+package be.catsandcoding.dozer.maven;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.DirectoryScanner;
+import org.codehaus.plexus.util.Scanner;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonatype.plexus.build.incremental.BuildContext;
+import org.sonatype.plexus.build.incremental.DefaultBuildContext;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+public class VerifyMojoTest {
+    private static final String SUCCESS = "SuccessMapping.xml";
+    private static final String FAILURE = "FailureMappingFieldANotFound.xml";
+
+    @TempDir
+    Path tempDir;
+
+    private Path mappingDirectory;
+    private RecordingBuildContext buildContext;
+    private VerifyMojo mojo;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        mappingDirectory = tempDir.resolve("mappings");
+        Files.createDirectories(mappingDirectory);
+        copyMapping(SUCCESS);
+        copyMapping(FAILURE);
+
+        // the mapped classes are compiled with the tests, the mapping files are test resources
+        MavenProject project = new MavenProject();
+        Build build = new Build();
+        build.setOutputDirectory(new File(getClass().getProtectionDomain().getCodeSource().getLocation().toURI()).getPath());
+        project.setBuild(build);
+
+        buildContext = new RecordingBuildContext();
+        mojo = new VerifyMojo();
+        set("project", project);
+        set("buildContext", buildContext);
+        set("mappingDirectory", mappingDirectory.toFile());
+        set("includes", new String[]{"**/*.xml"});
+        set("progressFile", tempDir.resolve("target/dozer-mapping-verification.progress").toFile());
+        set("numberOfWorkers", 1);
+    }
+
+    private void copyMapping(String name) throws Exception {
+        copyMapping(name, name);
+    }
+
+    private void copyMapping(String name, String target) throws Exception {
+        try(InputStream in = Objects.requireNonNull(Thread.currentThread().getContextClassLoader()
+                .getResourceAsStream("be/catsandcoding/dozer/maven/mappings/" + name))) {
+            Files.copy(in, mappingDirectory.resolve(target));
+        }
+    }
+
+    private void set(String name, Object value) throws ReflectiveOperationException {
+        java.lang.reflect.Field field = VerifyMojo.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(mojo, value);
+    }
+
+    @Test
+    public void execute_fullBuild_everyMappingVerifiedAndFailureReportedOnItsFile() {
+        MojoFailureException actual = Assertions.assertThrows(MojoFailureException.class, () -> mojo.execute());
+
+        Assertions.assertTrue(actual.getMessage().contains("does not have the necessary field"), actual.getMessage());
+        Assertions.assertEquals(Arrays.asList(mapping(FAILURE), mapping(SUCCESS)), buildContext.removed);
+        Assertions.assertEquals(Collections.singletonList(mapping(FAILURE)), buildContext.errors);
+    }
+
+    @Test
+    public void execute_incrementalBuildWithoutClassChanges_onlyChangedMappingsVerified() throws Exception {
+        buildContext.incremental = true;
+        buildContext.changed = Collections.singletonList(SUCCESS);
+
+        mojo.execute();
+
+        Assertions.assertEquals(Collections.singletonList(mapping(SUCCESS)), buildContext.removed);
+        Assertions.assertTrue(buildContext.errors.isEmpty());
+    }
+
+    @Test
+    public void execute_incrementalBuildWithClassChanges_everyMappingVerified() {
+        buildContext.incremental = true;
+        buildContext.changed = Collections.singletonList(SUCCESS);
+        buildContext.classesChanged = true;
+
+        Assertions.assertThrows(MojoFailureException.class, () -> mojo.execute());
+
+        Assertions.assertEquals(Arrays.asList(mapping(FAILURE), mapping(SUCCESS)), buildContext.removed);
+        Assertions.assertEquals(Collections.singletonList(mapping(FAILURE)), buildContext.errors);
+    }
+
+    @Test
+    public void execute_parallelWithSeveralFailures_everyFailureReportedOnItsFile() throws Exception {
+        copyMapping(FAILURE, "AnotherFailureMapping.xml");
+        set("numberOfWorkers", 2);
+
+        Assertions.assertThrows(MojoFailureException.class, () -> mojo.execute());
+
+        Assertions.assertEquals(Arrays.asList(mapping("AnotherFailureMapping.xml"), mapping(FAILURE)), buildContext.errors);
+    }
+
+    @Test
+    public void execute_includedMappingWithoutXmlExtension_verified() throws Exception {
+        copyMapping(FAILURE, "FailureMapping.dozer");
+        set("includes", new String[]{"**/*.dozer"});
+
+        Assertions.assertThrows(MojoFailureException.class, () -> mojo.execute());
+
+        Assertions.assertEquals(Collections.singletonList(mapping("FailureMapping.dozer")), buildContext.errors);
+    }
+
+    private File mapping(String name){
+        return mappingDirectory.resolve(name).toFile();
+    }
+
+    /**
+     * Stands in for the IDE: a delta of the changed mapping files and, optionally, of the class output.
+     */
+    private static class RecordingBuildContext extends DefaultBuildContext {
+        private boolean incremental = false;
+        private boolean classesChanged = false;
+        private List<String> changed = Collections.emptyList();
+        private final List<File> removed = new ArrayList<>();
+        private final List<File> errors = new ArrayList<>();
+
+        @Override
+        public boolean isIncremental() {
+            return incremental;
+        }
+
+        @Override
+        public boolean hasDelta(File file) {
+            return classesChanged;
+        }
+
+        @Override
+        public Scanner newScanner(File directory, boolean ignoreDelta) {
+            if(ignoreDelta || !incremental) { return super.newScanner(directory, ignoreDelta); }
+            return new DirectoryScanner() {
+                {
+                    setBasedir(directory);
+                }
+
+                @Override
+                public String[] getIncludedFiles() {
+                    return changed.toArray(new String[0]);
+                }
+            };
+        }
+
+        @Override
+        public void removeMessages(File file) {
+            removed.add(file);
+        }
+
+        @Override
+        public void addMessage(File file, int line, int column, String message, int severity, Throwable cause) {
+            if(severity == BuildContext.SEVERITY_ERROR){
+                errors.add(file);
+            }
+        }
+    }
+}
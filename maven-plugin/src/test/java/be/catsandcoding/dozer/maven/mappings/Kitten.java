@@ -0,0 +1,13 @@
+package be.catsandcoding.dozer.maven.mappings;
+
+public class Kitten {
+    private String name;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,178 @@
+package be.catsandcoding.dozer;
+
+import be.catsandcoding.dozer.components.Verifier;
+import be.catsandcoding.dozer.generated.Mapping;
+import org.dozer.DozerBeanMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.lang.Class;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * What every mapping of a project costs at runtime: {@link DozerBeanMapper#map(Object, Class)} from class-a to class-b
+ * on a sample source bean, see {@link SampleBeans}, through the project's own mapper, the DozerBeanMapper subclass the
+ * verification loads as fullyQualifiedDozerClassName. Run through {@link #main(String...)}, every mapping of its
+ * mapping files is verified, benchmarked with the GC profiler, and summed up in a table of throughput and allocation
+ * per mapping, slowest first:
+ * <pre>
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.main=be.catsandcoding.dozer.MappingBenchmark \
+ *     -Djmh.args="be.catsandcoding.dozer.mapper.SuccessDozerBeanMapper [classpath directories, ; separated]"
+ * </pre>
+ * The mapper, its mapping files and the mapped classes come from the benchmark classpath; the classpath directories
+ * only serve the verification, they default to the directories on the benchmark classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+    private static final String ARROW = " -> ";
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    @Param({"be.catsandcoding.dozer.mapper.SuccessDozerBeanMapper"})
+    public String mapper;
+
+    /**
+     * class-a -> class-b, followed by the map-id between brackets for mappings that have one
+     */
+    @Param({"be.catsandcoding.dozer.mappings.PreSuccess -> be.catsandcoding.dozer.mappings.Success"})
+    public String mapping;
+
+    private DozerMappingVerification verification;
+    private DozerBeanMapper dozerBeanMapper;
+    private Object source;
+    private Class<?> destinationClass;
+    private String mapId;
+
+    @Setup
+    public void setup() throws Exception {
+        verification = new DozerMappingVerification();
+        verification.setFullyQualifiedDozerClassName(mapper);
+        dozerBeanMapper = verification.loadDozerInstance();
+
+        String[] classes = mapping.split(Pattern.quote(ARROW));
+        String classB = classes[1];
+        int bracket = classB.indexOf(" [");
+        if(bracket > 0){
+            mapId = classB.substring(bracket + 2, classB.length() - 1);
+            classB = classB.substring(0, bracket);
+        }
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        source = SampleBeans.create(Class.forName(classes[0], true, classLoader));
+        destinationClass = Class.forName(classB, true, classLoader);
+        // the first map reads the mapping files, that is not what is measured
+        map();
+    }
+
+    @TearDown
+    public void tearDown() {
+        verification.closeDozerClassLoader();
+    }
+
+    @Benchmark
+    public Object map() {
+        return mapId == null ? dozerBeanMapper.map(source, destinationClass) : dozerBeanMapper.map(source, destinationClass, mapId);
+    }
+
+    static String describe(Mapping mapping){
+        return mapping.getClassA().getContent().trim() + ARROW + mapping.getClassB().getContent().trim()
+                + (mapping.getMapId() == null ? "" : " [" + mapping.getMapId() + "]");
+    }
+
+    public static void main(String... args) throws Exception {
+        if(args.length < 1){
+            System.err.println("Usage: MappingBenchmark <fully qualified DozerBeanMapper class> [classpath directories, ; separated]");
+            System.exit(1);
+        }
+        List<String> classPathDirectories = args.length > 1 ? Arrays.asList(args[1].split(";")) :
+                Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator))
+                        .filter(path -> Files.isDirectory(Paths.get(path))).collect(Collectors.toList());
+        List<String> mappings = getVerifiedMappings(args[0], classPathDirectories);
+
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(Pattern.quote(MappingBenchmark.class.getName()) + "\\.")
+                .param("mapper", args[0])
+                .param("mapping", mappings.toArray(new String[0]))
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+        printTable(mappings, results, System.out);
+    }
+
+    // a mapping that does not verify fails the run before anything is measured
+    private static List<String> getVerifiedMappings(String mapperClassName, List<String> classPathDirectories) throws Exception {
+        DozerMappingVerification verification = new DozerMappingVerification();
+        verification.setFullyQualifiedDozerClassName(mapperClassName);
+        List<String> mappingFiles;
+        try {
+            mappingFiles = verification.loadDozerInstance().getMappingFiles();
+        } finally {
+            verification.closeDozerClassLoader();
+        }
+
+        Set<String> mappings = new LinkedHashSet<>();
+        try(Verifier verifier = new Verifier(new Options().withClassPathDirectories(classPathDirectories))) {
+            verifier.verifyAll(mappingFiles);
+            for(String mappingFile: mappingFiles){
+                for(Mapping mapping: verifier.getMappingsForFile(mappingFile).getMapping()){
+                    mappings.add(describe(mapping));
+                }
+            }
+        }
+        return new ArrayList<>(mappings);
+    }
+
+    static void printTable(List<String> mappings, Collection<RunResult> results, PrintStream out){
+        Map<String, RunResult> byMapping = new TreeMap<>();
+        for(RunResult result: results){
+            byMapping.put(result.getParams().getParam("mapping"), result);
+        }
+        List<String> measured = new ArrayList<>(byMapping.keySet());
+        measured.sort(Comparator.comparingDouble(mapping -> byMapping.get(mapping).getPrimaryResult().getScore()));
+        int width = mappings.stream().mapToInt(String::length).max().orElse(0);
+        String unit = results.isEmpty() ? "ops/ms" : results.iterator().next().getPrimaryResult().getScoreUnit();
+
+        out.println();
+        out.printf("%-" + width + "s  %14s  %12s  %12s%n", "Mapping", unit, "error", "B/op");
+        for(String mapping: measured){
+            Result<?> throughput = byMapping.get(mapping).getPrimaryResult();
+            Result<?> allocation = getAllocation(byMapping.get(mapping));
+            out.printf("%-" + width + "s  %14.3f  %12.3f  %12s%n", mapping, throughput.getScore(), throughput.getScoreError(),
+                    allocation == null ? "n/a" : String.format("%.1f", allocation.getScore()));
+        }
+        for(String mapping: mappings){
+            if(!byMapping.containsKey(mapping)){
+                out.printf("%-" + width + "s  %14s%n", mapping, "failed");
+            }
+        }
+    }
+
+    // older JMH versions prefix the labels of profilers with a dot
+    private static Result<?> getAllocation(RunResult result){
+        for(Map.Entry<String, Result> secondary: result.getSecondaryResults().entrySet()){
+            if(secondary.getKey().endsWith(ALLOCATION)) { return secondary.getValue(); }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,156 @@
+package be.catsandcoding.dozer;
+
+import java.lang.Class;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Fills source beans with a sample value in every field, by its declared type, so a benchmarked mapping copies
+ * what it would copy in production rather than nulls. Nested beans and the elements of collections are filled in
+ * turn, up to {@value #MAX_DEPTH} levels deep; types that cannot be instantiated stay null.
+ */
+final class SampleBeans {
+    static final int MAX_DEPTH = 3;
+
+    private SampleBeans(){}
+
+    static Object create(Class<?> clazz) throws ReflectiveOperationException {
+        Object bean = instantiate(clazz);
+        if(bean == null) {
+            throw new InstantiationException(String.format("%s has no constructor without arguments", clazz.getName()));
+        }
+        fill(bean, 1);
+        return bean;
+    }
+
+    // the fields themselves, as Dozer reads is-accessible fields without their getter
+    private static void fill(Object bean, int depth) throws ReflectiveOperationException {
+        for(Class<?> current = bean.getClass(); current != null && current != Object.class; current = current.getSuperclass()){
+            for(Field field: current.getDeclaredFields()){
+                if(Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers()) || field.isSynthetic()) { continue; }
+
+                Object value = sample(field.getGenericType(), depth);
+                if(value != null){
+                    field.setAccessible(true);
+                    field.set(bean, value);
+                }
+            }
+        }
+    }
+
+    private static Object sample(Type type, int depth) throws ReflectiveOperationException {
+        Class<?> clazz = rawType(type);
+        if(clazz == null) { return null; }
+        if(clazz == boolean.class || clazz == Boolean.class) { return Boolean.TRUE; }
+        if(clazz == char.class || clazz == Character.class) { return 'x'; }
+        if(clazz == byte.class || clazz == Byte.class) { return (byte) 1; }
+        if(clazz == short.class || clazz == Short.class) { return (short) 1; }
+        if(clazz == int.class || clazz == Integer.class) { return 1; }
+        if(clazz == long.class || clazz == Long.class) { return 1L; }
+        if(clazz == float.class || clazz == Float.class) { return 1f; }
+        if(clazz == double.class || clazz == Double.class) { return 1d; }
+        if(clazz == String.class) { return "sample"; }
+        if(clazz == BigDecimal.class) { return BigDecimal.ONE; }
+        if(clazz == BigInteger.class) { return BigInteger.ONE; }
+        if(clazz == UUID.class) { return new UUID(0, 1); }
+        if(clazz == Date.class) { return new Date(0); }
+        if(clazz == Calendar.class) { return Calendar.getInstance(); }
+        if(clazz.isEnum()) {
+            Object[] constants = clazz.getEnumConstants();
+            return constants.length == 0 ? null : constants[0];
+        }
+        if(depth >= MAX_DEPTH) { return null; }
+
+        if(clazz.isArray()){
+            Object array = Array.newInstance(clazz.getComponentType(), 1);
+            Object element = sample(clazz.getComponentType(), depth + 1);
+            if(element != null){
+                Array.set(array, 0, element);
+            }
+            return array;
+        }
+        if(Collection.class.isAssignableFrom(clazz)){
+            @SuppressWarnings("unchecked")
+            Collection<Object> collection = (Collection<Object>) newCollection(clazz);
+            Object element = collection == null ? null : sample(typeArgument(type, 0), depth + 1);
+            // sorted collections only take what they can compare
+            if(element != null && (!(collection instanceof SortedSet) || element instanceof Comparable)){
+                collection.add(element);
+            }
+            return collection;
+        }
+        if(Map.class.isAssignableFrom(clazz)){
+            @SuppressWarnings("unchecked")
+            Map<Object, Object> map = (Map<Object, Object>) newMap(clazz);
+            Object key = map == null ? null : sample(typeArgument(type, 0), depth + 1);
+            Object value = key == null ? null : sample(typeArgument(type, 1), depth + 1);
+            if(value != null && (!(map instanceof SortedMap) || key instanceof Comparable)){
+                map.put(key, value);
+            }
+            return map;
+        }
+        if(clazz.getName().startsWith("java.")) { return null; }
+
+        Object nested = instantiate(clazz);
+        if(nested != null){
+            fill(nested, depth + 1);
+        }
+        return nested;
+    }
+
+    private static Class<?> rawType(Type type){
+        if(type instanceof Class) { return (Class<?>) type; }
+        if(type instanceof ParameterizedType) { return rawType(((ParameterizedType) type).getRawType()); }
+        // type variables and wildcards are not known at runtime
+        return null;
+    }
+
+    private static Type typeArgument(Type type, int index){
+        if(!(type instanceof ParameterizedType)) { return null; }
+        Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+        return index < arguments.length ? arguments[index] : null;
+    }
+
+    private static Collection<?> newCollection(Class<?> clazz) throws ReflectiveOperationException {
+        if(clazz.isAssignableFrom(ArrayList.class)) { return new ArrayList<>(); }
+        if(clazz.isAssignableFrom(HashSet.class)) { return new HashSet<>(); }
+        if(clazz.isAssignableFrom(TreeSet.class)) { return new TreeSet<>(); }
+        return (Collection<?>) instantiate(clazz);
+    }
+
+    private static Map<?, ?> newMap(Class<?> clazz) throws ReflectiveOperationException {
+        if(clazz.isAssignableFrom(HashMap.class)) { return new HashMap<>(); }
+        if(clazz.isAssignableFrom(TreeMap.class)) { return new TreeMap<>(); }
+        return (Map<?, ?>) instantiate(clazz);
+    }
+
+    private static Object instantiate(Class<?> clazz) throws ReflectiveOperationException {
+        if(clazz.isInterface() || Modifier.isAbstract(clazz.getModifiers())
+                || (clazz.getDeclaringClass() != null && !Modifier.isStatic(clazz.getModifiers()))) { return null; }
+        try {
+            Constructor<?> constructor = clazz.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor.newInstance();
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
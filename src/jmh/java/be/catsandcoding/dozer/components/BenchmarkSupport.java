@@ -0,0 +1,44 @@
+package be.catsandcoding.dozer.components;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Plumbing shared by the benchmarks.
+ */
+final class BenchmarkSupport {
+    private BenchmarkSupport(){}
+
+    static void delete(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * Swallows the per file progress messages so they do not drown the benchmark output.
+     * @return the original stream, to be restored afterwards
+     */
+    static PrintStream silenceSystemOut() {
+        PrintStream original = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+                // discarded
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                // discarded
+            }
+        }));
+        return original;
+    }
+}
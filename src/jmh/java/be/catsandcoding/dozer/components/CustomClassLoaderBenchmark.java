@@ -0,0 +1,62 @@
+package be.catsandcoding.dozer.components;
+
+import be.catsandcoding.dozer.generator.MappingCorpusGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomClassLoaderBenchmark {
+    @Param({"500"})
+    public int numberOfBeanClasses;
+
+    private Path directory;
+    private String classesDirectory;
+    private String[] classNames;
+    private CustomClassLoader customClassLoader;
+    private int next = 0;
+
+    @Setup
+    public void setup() throws Exception {
+        directory = Files.createTempDirectory("dozer-benchmark");
+        classesDirectory = new MappingCorpusGenerator().withNumberOfBeanClasses(numberOfBeanClasses).withNestingDepth(1)
+                .generate(directory).getClassesDirectory().toString();
+        classNames = new String[numberOfBeanClasses];
+        for (int i = 0; i < numberOfBeanClasses; i++) {
+            classNames[i] = MappingCorpusGenerator.PACKAGE + ".Bean" + i;
+        }
+        customClassLoader = new CustomClassLoader(classesDirectory);
+        for (String className : classNames) {
+            customClassLoader.loadClass(className);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        customClassLoader.close();
+        BenchmarkSupport.delete(directory);
+    }
+
+    @Benchmark
+    public Optional<Class<?>> loadClass_fromIndex() {
+        return customClassLoader.loadClass(classNames[next++ % classNames.length]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 10)
+    public Optional<Class<?>> loadClass_firstLookupScansClasspath() {
+        try (CustomClassLoader cold = new CustomClassLoader(classesDirectory)) {
+            return cold.loadClass(classNames[0]);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package be.catsandcoding.dozer.components;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolution of nested property paths, the work behind the field checks of {@link VerificationMethods}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyResolverBenchmark {
+    public static class Node {
+        private Node next;
+        private String value;
+
+        public Node getNext() {
+            return next;
+        }
+
+        public void setNext(Node next) {
+            this.next = next;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public void setValue(String value) {
+            this.value = value;
+        }
+    }
+
+    @Param({"1", "4", "16"})
+    public int depth;
+
+    private String path;
+    private PropertyResolver sharedPropertyResolver;
+
+    @Setup
+    public void setup() {
+        path = String.join("", Collections.nCopies(depth, "next.")) + "value";
+        sharedPropertyResolver = new PropertyResolver();
+        sharedPropertyResolver.resolve(Node.class, path, false);
+    }
+
+    @Benchmark
+    public PropertyResolver.Resolution resolve_memoized() {
+        return sharedPropertyResolver.resolve(Node.class, path, false);
+    }
+
+    @Benchmark
+    public PropertyResolver.Resolution resolve_cold() {
+        return new PropertyResolver().resolve(Node.class, path, false);
+    }
+
+    @Benchmark
+    public PropertyResolver.Resolution resolve_coldCaseInsensitive() {
+        return new PropertyResolver().resolve(Node.class, path.toUpperCase(), true);
+    }
+}
@@ -0,0 +1,115 @@
+package be.catsandcoding.dozer.components;
+
+import be.catsandcoding.dozer.Options;
+import be.catsandcoding.dozer.generated.Mappings;
+import be.catsandcoding.dozer.generator.MappingCorpusGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedInputStream;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VerifierBenchmark {
+    /**
+     * Never remembers anything, so every invocation verifies the file again.
+     */
+    private static final class ForgetfulProgressStore implements ProgressStore {
+        @Override
+        public Optional<FileFingerprint> get(String pathToXmlResource) {
+            return Optional.empty();
+        }
+
+        @Override
+        public void put(String pathToXmlResource, FileFingerprint fingerprint) {
+            // forgotten
+        }
+
+        @Override
+        public void flush() {
+            // nothing to persist
+        }
+
+        @Override
+        public void close() {
+            // nothing to release
+        }
+    }
+
+    @Param({"10", "1000", "10000"})
+    public int numberOfMappings;
+
+    private Path directory;
+    private Path mappingFile;
+    private String pathToXmlResource;
+    private Verifier verifier;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setup() throws Exception {
+        directory = Files.createTempDirectory("dozer-benchmark");
+        MappingCorpusGenerator.Corpus corpus = new MappingCorpusGenerator()
+                .withMappingsPerFile(numberOfMappings)
+                .withFieldsPerMapping(6)
+                .withNestingDepth(2)
+                .withConverterDensity(0.2)
+                .generate(directory);
+        mappingFile = corpus.getMappingFiles().get(0);
+        pathToXmlResource = mappingFile.toUri().toString();
+        verifier = new Verifier(new Options().withClassPathDirectories(
+                Collections.singletonList(corpus.getClassesDirectory().toString())), new ForgetfulProgressStore());
+        originalOut = BenchmarkSupport.silenceSystemOut();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        System.setOut(originalOut);
+        verifier.close();
+        BenchmarkSupport.delete(directory);
+    }
+
+    @Benchmark
+    public Mappings getMappingsForFile() throws Exception {
+        return verifier.getMappingsForFile(pathToXmlResource);
+    }
+
+    @Benchmark
+    public Mappings readLean() throws Exception {
+        try(InputStream in = new BufferedInputStream(Files.newInputStream(mappingFile))) {
+            return new LeanMappingReader().read(in);
+        }
+    }
+
+    @Benchmark
+    public String getChecksum() throws Exception {
+        return Verifier.getChecksum(mappingFile);
+    }
+
+    /**
+     * Verifies every mapping of the file, the run-wide verdicts of the previous invocation are forgotten first.
+     */
+    @Benchmark
+    public void verify() throws Exception {
+        verifier.clearVerdicts();
+        verifier.verify(pathToXmlResource);
+    }
+
+    /**
+     * Verifies the file again with the verdicts of the previous invocation at hand, as the files that follow the
+     * first one in a run are, as far as their mappings repeat.
+     */
+    @Benchmark
+    public void verifyReplayingVerdicts() throws Exception {
+        verifier.verify(pathToXmlResource);
+    }
+}
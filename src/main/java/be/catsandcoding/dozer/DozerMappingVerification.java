@@ -1,6 +1,8 @@
 package be.catsandcoding.dozer;
 
 import be.catsandcoding.dozer.components.CustomClassLoader;
+import be.catsandcoding.dozer.components.MappingWatcher;
+import be.catsandcoding.dozer.components.Shards;
 import be.catsandcoding.dozer.components.Verifier;
 import org.apache.tools.ant.BuildException;
 import org.apache.tools.ant.Task;
@@ -14,21 +16,38 @@ import java.lang.Class;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 public class DozerMappingVerification extends Task {
 
     private String fullyQualifiedDozerClassName;
     private final List<String> paths = new ArrayList<>();
+    private CustomClassLoader dozerClassLoader;
     private String classPath;
     private String pathToLoadXmlFrom;
     private String pathToPreviouslyCheckedFileResults;
     private boolean caseInsensitiveFieldMatchingAllowed;
     private boolean ignoringErrorsAllowed;
+    private int numberOfWorkers = 1;
+    private boolean streamingEnabled;
+    private String pathToMetricsReport;
+    private boolean leanParsingEnabled;
+    private boolean scanRestrictedToReferencedPackages;
+    private boolean metadataOnlyVerificationEnabled;
+    private boolean watchEnabled;
+    private int shardIndex = 0;
+    private int shardCount = 1;
+    private boolean shardMergingEnabled;
+    private String includes;
+    private String excludes;
+    private String pathToCostReport;
+    private String pathToGeneratedSources;
 
     public static void main(String... args){
         DozerMappingVerification dozerMappingVerification = new DozerMappingVerification();
@@ -86,17 +105,203 @@ public class DozerMappingVerification extends Task {
         this.ignoringErrorsAllowed = ignoringErrorsAllowed;
     }
 
-    private DozerBeanMapper loadDozerInstance() throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
-        Class<?> dozerBeanMapper;
+    public int getNumberOfWorkers() {
+        return numberOfWorkers;
+    }
+
+    /**
+     * @param numberOfWorkers how many mapping files are verified at the same time, 0 uses all available processors
+     */
+    public void setNumberOfWorkers(int numberOfWorkers) {
+        this.numberOfWorkers = numberOfWorkers;
+    }
+
+    public boolean isStreamingEnabled() {
+        return streamingEnabled;
+    }
+
+    /**
+     * @param streamingEnabled read mapping files one mapping at a time, keeping memory use low for very large files
+     */
+    public void setStreamingEnabled(boolean streamingEnabled) {
+        this.streamingEnabled = streamingEnabled;
+    }
+
+    public String getPathToMetricsReport() {
+        return pathToMetricsReport;
+    }
+
+    /**
+     * @param pathToMetricsReport file to write a JSON summary of the timings per phase and per file to
+     */
+    public void setPathToMetricsReport(String pathToMetricsReport) {
+        this.pathToMetricsReport = pathToMetricsReport;
+    }
+
+    public boolean isLeanParsingEnabled() {
+        return leanParsingEnabled;
+    }
+
+    /**
+     * @param leanParsingEnabled read mapping files without JAXB, only picking up what the verification needs
+     */
+    public void setLeanParsingEnabled(boolean leanParsingEnabled) {
+        this.leanParsingEnabled = leanParsingEnabled;
+    }
+
+    public boolean isScanRestrictedToReferencedPackages() {
+        return scanRestrictedToReferencedPackages;
+    }
+
+    /**
+     * @param scanRestrictedToReferencedPackages only scan the packages of the classes named in the mapping files;
+     *                                           has no effect together with metadataOnlyVerificationEnabled
+     */
+    public void setScanRestrictedToReferencedPackages(boolean scanRestrictedToReferencedPackages) {
+        this.scanRestrictedToReferencedPackages = scanRestrictedToReferencedPackages;
+    }
+
+    public boolean isMetadataOnlyVerificationEnabled() {
+        return metadataOnlyVerificationEnabled;
+    }
+
+    /**
+     * @param metadataOnlyVerificationEnabled verify on the class metadata of the classpath scan, without loading the
+     *                                        mapped classes and converters. Nested and inherited properties are
+     *                                        resolved from the scan, so it always covers the whole classpath, field
+     *                                        and method info included, and scanRestrictedToReferencedPackages is
+     *                                        ignored: the scan is slower and takes more memory than without
+     */
+    public void setMetadataOnlyVerificationEnabled(boolean metadataOnlyVerificationEnabled) {
+        this.metadataOnlyVerificationEnabled = metadataOnlyVerificationEnabled;
+    }
+
+    public boolean isWatchEnabled() {
+        return watchEnabled;
+    }
+
+    /**
+     * @param watchEnabled after verifying pathToLoadXmlFrom keep running, verifying mapping files again as they or
+     *                     the classes in the classPath directories change; the reports are written again after
+     *                     every batch of changes
+     */
+    public void setWatchEnabled(boolean watchEnabled) {
+        this.watchEnabled = watchEnabled;
+    }
+
+    public int getShardIndex() {
+        return shardIndex;
+    }
+
+    /**
+     * @param shardIndex which shard of the mapping files to verify, counting from 0
+     */
+    public void setShardIndex(int shardIndex) {
+        this.shardIndex = shardIndex;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * @param shardCount in how many shards to split the mapping files, each with its own progress-file and metrics
+     *                   report; 1 (the default) verifies all of them
+     */
+    public void setShardCount(int shardCount) {
+        this.shardCount = shardCount;
+    }
+
+    public boolean isShardMergingEnabled() {
+        return shardMergingEnabled;
+    }
+
+    /**
+     * @param shardMergingEnabled instead of verifying, merge the progress-files and metrics reports that the
+     *                            shardCount shards left behind into the configured ones
+     */
+    public void setShardMergingEnabled(boolean shardMergingEnabled) {
+        this.shardMergingEnabled = shardMergingEnabled;
+    }
+
+    public String getIncludes() {
+        return includes;
+    }
+
+    /**
+     * @param includes comma separated glob patterns, relative to pathToLoadXmlFrom, of the mapping files to verify;
+     *                 every .xml file when not set
+     */
+    public void setIncludes(String includes) {
+        this.includes = includes;
+    }
+
+    public String getExcludes() {
+        return excludes;
+    }
+
+    /**
+     * @param excludes comma separated glob patterns, relative to pathToLoadXmlFrom, of the files to leave out, for
+     *                 instance **&#47;target/**,**&#47;.git/**; excluded directories are not walked into
+     */
+    public void setExcludes(String excludes) {
+        this.excludes = excludes;
+    }
+
+    public String getPathToCostReport() {
+        return pathToCostReport;
+    }
+
+    /**
+     * @param pathToCostReport where to write the verified mappings as a JSON report, ranked by their estimated cost
+     *                         at runtime, with the hot-spot patterns found in each
+     */
+    public void setPathToCostReport(String pathToCostReport) {
+        this.pathToCostReport = pathToCostReport;
+    }
+
+    public String getPathToGeneratedSources() {
+        return pathToGeneratedSources;
+    }
+
+    /**
+     * @param pathToGeneratedSources the directory to generate a plain Java mapper in for every verified mapping that
+     *                               can do without Dozer, mappings that cannot are listed with the reason; mappers
+     *                               generated before and no longer generated are removed
+     */
+    public void setPathToGeneratedSources(String pathToGeneratedSources) {
+        this.pathToGeneratedSources = pathToGeneratedSources;
+    }
+
+    private static List<String> splitPatterns(String patterns){
+        if(patterns == null) { return new ArrayList<>(); }
+        return Arrays.stream(patterns.split(",")).map(String::trim).filter(pattern -> !pattern.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    DozerBeanMapper loadDozerInstance() throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
         try {
-            dozerBeanMapper = Class.forName(getFullyQualifiedDozerClassName());
+            return (DozerBeanMapper) Class.forName(getFullyQualifiedDozerClassName()).newInstance();
         } catch (ClassNotFoundException e){
-            dozerBeanMapper = new CustomClassLoader(paths).loadClass(getFullyQualifiedDozerClassName())
+            // the mapper keeps loading the classes of its mappings through this loader, it is closed with the task
+            if(dozerClassLoader == null){
+                dozerClassLoader = new CustomClassLoader(paths);
+            }
+            Class<?> dozerBeanMapper = dozerClassLoader.loadClass(getFullyQualifiedDozerClassName())
                     .orElseThrow(() -> new IllegalStateException("Could not locate DozerBeanMapper class"));
+            return (DozerBeanMapper) dozerBeanMapper.newInstance();
         }
+    }
 
-        Object target = dozerBeanMapper.newInstance();
-        return (DozerBeanMapper) target;
+    /**
+     * Releases the class loader the mappers returned by {@link #loadDozerInstance()} fell back to, once they are no
+     * longer used.
+     */
+    void closeDozerClassLoader(){
+        if(dozerClassLoader != null){
+            dozerClassLoader.close();
+            dozerClassLoader = null;
+        }
     }
 
     private void performVerification(){
@@ -104,18 +309,41 @@ public class DozerMappingVerification extends Task {
                 .withClassPathDirectories(Arrays.asList(getClassPath().split(";")))
                 .withCaseInsensitiveFieldMatchingAllowed(isCaseInsensitiveFieldMatchingAllowed())
                 .withIgnoringErrorsAllowed(isIgnoringErrorsAllowed())
+                .withNumberOfWorkers(getNumberOfWorkers())
+                .withStreamingEnabled(isStreamingEnabled())
+                .withPathToMetricsReport(getPathToMetricsReport())
+                .withLeanParsingEnabled(isLeanParsingEnabled())
+                .withScanRestrictedToReferencedPackages(isScanRestrictedToReferencedPackages())
+                .withMetadataOnlyVerificationEnabled(isMetadataOnlyVerificationEnabled())
+                .withShardIndex(getShardIndex())
+                .withShardCount(getShardCount())
+                .withIncludes(splitPatterns(getIncludes()))
+                .withExcludes(splitPatterns(getExcludes()))
+                .withPathToCostReport(getPathToCostReport())
+                .withPathToGeneratedSources(getPathToGeneratedSources())
                 .withPathToProgressKeepingFile(getPathToPreviouslyCheckedFileResults());
 
-        try {
-            Verifier verifier = new Verifier(options);
+        if(isShardMergingEnabled()){
+            try {
+                Shards.merge(options);
+            } catch (IOException e) {
+                throw new BuildException(e.getMessage(), e);
+            }
+            return;
+        }
+
+        try (Verifier verifier = new Verifier(options)) {
             if(fullyQualifiedDozerClassName != null) {
                 DozerBeanMapper dozerBeanMapper = loadDozerInstance();
-                for (String path : dozerBeanMapper.getMappingFiles()) {
-                    verifier.verify(path);
-                }
+                verifier.verifyAll(dozerBeanMapper.getMappingFiles());
             } else if (getPathToLoadXmlFrom() != null){
-                Files.walkFileTree(Paths.get(pathToLoadXmlFrom), verifier);
-
+                verifier.collectReferencedPackages(Paths.get(pathToLoadXmlFrom));
+                if(isWatchEnabled()){
+                    watch(verifier, options);
+                } else {
+                    Files.walkFileTree(Paths.get(pathToLoadXmlFrom), verifier);
+                    verifier.awaitPendingVerifications();
+                }
             }
 
         } catch(ParserConfigurationException | URISyntaxException | SAXException | IOException | NoSuchMethodException | IllegalAccessException | InvocationTargetException | InstantiationException | JAXBException | NoSuchAlgorithmException e) {
@@ -124,10 +352,28 @@ public class DozerMappingVerification extends Task {
             } else {
                 throw new BuildException(e.getMessage(), e);
             }
+        } finally {
+            closeDozerClassLoader();
         }
 
     }
 
+    private void watch(Verifier verifier, Options options) throws IOException, ParserConfigurationException, SAXException, JAXBException, URISyntaxException, NoSuchAlgorithmException {
+        List<Path> classDirectories = options.getClassPathDirectories().stream().filter(path -> !path.isEmpty())
+                .map(Paths::get).collect(Collectors.toList());
+        try (MappingWatcher watcher = new MappingWatcher(verifier, Paths.get(pathToLoadXmlFrom), classDirectories, System.out)) {
+            try {
+                Files.walkFileTree(Paths.get(pathToLoadXmlFrom), verifier);
+                verifier.awaitPendingVerifications();
+            } catch (BuildException e) {
+                // the first run failing is what the watching is for
+                System.out.println(e.getMessage());
+            }
+            verifier.writeReports();
+            watcher.watch();
+        }
+    }
+
     @Override
     public void execute() throws BuildException {
         super.execute();
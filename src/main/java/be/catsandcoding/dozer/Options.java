@@ -6,46 +6,144 @@ import java.util.List;
 import java.util.Optional;
 
 public class Options {
-    private final List<String> classPathDirectories;
-    private final String pathToProgressKeepingFile;
-    private final boolean caseInsensitiveFieldMatchingAllowed;
-    private final boolean ignoringErrorsAllowed;
+    private List<String> classPathDirectories;
+    private String pathToProgressKeepingFile;
+    private boolean caseInsensitiveFieldMatchingAllowed;
+    private boolean ignoringErrorsAllowed;
+    private int numberOfWorkers;
+    private boolean streamingEnabled;
+    private String pathToMetricsReport;
+    private boolean leanParsingEnabled;
+    private boolean scanRestrictedToReferencedPackages;
+    private boolean metadataOnlyVerificationEnabled;
+    private int shardIndex;
+    private int shardCount;
+    private List<String> includes;
+    private List<String> excludes;
+    private String pathToCostReport;
+    private String pathToGeneratedSources;
 
     public Options(){
-        this(new ArrayList<>(), null, false, false);
+        this.classPathDirectories = Collections.unmodifiableList(new ArrayList<>());
+        this.includes = Collections.unmodifiableList(new ArrayList<>());
+        this.excludes = Collections.unmodifiableList(new ArrayList<>());
+        this.numberOfWorkers = 1;
+        this.shardCount = 1;
     }
 
-    private Options(List<String> classPathDirectories,
-                    String pathToProgressKeepingFile,
-                    boolean caseInsensitiveFieldMatchingAllowed, boolean ignoringErrorsAllowed){
-        this.classPathDirectories = Collections.unmodifiableList(classPathDirectories);
-        this.pathToProgressKeepingFile = pathToProgressKeepingFile;
-        this.caseInsensitiveFieldMatchingAllowed = caseInsensitiveFieldMatchingAllowed;
-        this.ignoringErrorsAllowed = ignoringErrorsAllowed;
+    private Options(Options other){
+        this.classPathDirectories = other.classPathDirectories;
+        this.pathToProgressKeepingFile = other.pathToProgressKeepingFile;
+        this.caseInsensitiveFieldMatchingAllowed = other.caseInsensitiveFieldMatchingAllowed;
+        this.ignoringErrorsAllowed = other.ignoringErrorsAllowed;
+        this.numberOfWorkers = other.numberOfWorkers;
+        this.streamingEnabled = other.streamingEnabled;
+        this.pathToMetricsReport = other.pathToMetricsReport;
+        this.leanParsingEnabled = other.leanParsingEnabled;
+        this.scanRestrictedToReferencedPackages = other.scanRestrictedToReferencedPackages;
+        this.metadataOnlyVerificationEnabled = other.metadataOnlyVerificationEnabled;
+        this.shardIndex = other.shardIndex;
+        this.shardCount = other.shardCount;
+        this.includes = other.includes;
+        this.excludes = other.excludes;
+        this.pathToCostReport = other.pathToCostReport;
+        this.pathToGeneratedSources = other.pathToGeneratedSources;
     }
 
     public Options withClassPathDirectories(List<String> classPathDirectories){
-        return new Options(classPathDirectories,
-                getPathToProgressKeepingFile().orElse(null),
-                isCaseInsensitiveFieldMatchingAllowed(), isIgnoringErrorsAllowed());
+        Options options = new Options(this);
+        options.classPathDirectories = Collections.unmodifiableList(classPathDirectories);
+        return options;
     }
 
     public Options withPathToProgressKeepingFile(String pathToProgressKeepingFile){
-        return new Options(getClassPathDirectories(),
-                pathToProgressKeepingFile,
-                isCaseInsensitiveFieldMatchingAllowed(), isIgnoringErrorsAllowed());
+        Options options = new Options(this);
+        options.pathToProgressKeepingFile = pathToProgressKeepingFile;
+        return options;
     }
 
     public Options withCaseInsensitiveFieldMatchingAllowed(boolean caseInsensitiveFieldMatchingAllowed){
-        return new Options(getClassPathDirectories(),
-                getPathToProgressKeepingFile().orElse(null),
-                caseInsensitiveFieldMatchingAllowed, isIgnoringErrorsAllowed());
+        Options options = new Options(this);
+        options.caseInsensitiveFieldMatchingAllowed = caseInsensitiveFieldMatchingAllowed;
+        return options;
     }
 
     public Options withIgnoringErrorsAllowed(boolean ignoringErrorsAllowed){
-        return new Options(getClassPathDirectories(),
-                getPathToProgressKeepingFile().orElse(null),
-                isCaseInsensitiveFieldMatchingAllowed(), ignoringErrorsAllowed);
+        Options options = new Options(this);
+        options.ignoringErrorsAllowed = ignoringErrorsAllowed;
+        return options;
+    }
+
+    public Options withNumberOfWorkers(int numberOfWorkers){
+        Options options = new Options(this);
+        options.numberOfWorkers = numberOfWorkers;
+        return options;
+    }
+
+    public Options withStreamingEnabled(boolean streamingEnabled){
+        Options options = new Options(this);
+        options.streamingEnabled = streamingEnabled;
+        return options;
+    }
+
+    public Options withPathToMetricsReport(String pathToMetricsReport){
+        Options options = new Options(this);
+        options.pathToMetricsReport = pathToMetricsReport;
+        return options;
+    }
+
+    public Options withLeanParsingEnabled(boolean leanParsingEnabled){
+        Options options = new Options(this);
+        options.leanParsingEnabled = leanParsingEnabled;
+        return options;
+    }
+
+    public Options withScanRestrictedToReferencedPackages(boolean scanRestrictedToReferencedPackages){
+        Options options = new Options(this);
+        options.scanRestrictedToReferencedPackages = scanRestrictedToReferencedPackages;
+        return options;
+    }
+
+    public Options withMetadataOnlyVerificationEnabled(boolean metadataOnlyVerificationEnabled){
+        Options options = new Options(this);
+        options.metadataOnlyVerificationEnabled = metadataOnlyVerificationEnabled;
+        return options;
+    }
+
+    public Options withShardIndex(int shardIndex){
+        Options options = new Options(this);
+        options.shardIndex = shardIndex;
+        return options;
+    }
+
+    public Options withShardCount(int shardCount){
+        Options options = new Options(this);
+        options.shardCount = shardCount;
+        return options;
+    }
+
+    public Options withIncludes(List<String> includes){
+        Options options = new Options(this);
+        options.includes = Collections.unmodifiableList(includes);
+        return options;
+    }
+
+    public Options withExcludes(List<String> excludes){
+        Options options = new Options(this);
+        options.excludes = Collections.unmodifiableList(excludes);
+        return options;
+    }
+
+    public Options withPathToCostReport(String pathToCostReport){
+        Options options = new Options(this);
+        options.pathToCostReport = pathToCostReport;
+        return options;
+    }
+
+    public Options withPathToGeneratedSources(String pathToGeneratedSources){
+        Options options = new Options(this);
+        options.pathToGeneratedSources = pathToGeneratedSources;
+        return options;
     }
 
     public List<String> getClassPathDirectories() {
@@ -63,4 +161,107 @@ public class Options {
     public boolean isIgnoringErrorsAllowed() {
         return ignoringErrorsAllowed;
     }
+
+    /**
+     * @return the number of mapping files verified at the same time, 1 (the default) verifies them one after another
+     * and anything below 1 uses one worker per available processor
+     */
+    public int getNumberOfWorkers() {
+        return numberOfWorkers < 1 ? Runtime.getRuntime().availableProcessors() : numberOfWorkers;
+    }
+
+    /**
+     * @return whether mapping files are read one {@code <mapping>} at a time instead of as a whole
+     */
+    public boolean isStreamingEnabled() {
+        return streamingEnabled;
+    }
+
+    /**
+     * @return where the JSON summary of timings and cache hit rates is written at the end of the run, if anywhere
+     */
+    public Optional<String> getPathToMetricsReport() {
+        return Optional.ofNullable(pathToMetricsReport);
+    }
+
+    /**
+     * @return whether mapping files are read without JAXB, building only the parts of the model the verification uses;
+     * ignored when {@link #getPathToGeneratedSources()} is set, the generation needs the whole model
+     */
+    public boolean isLeanParsingEnabled() {
+        return leanParsingEnabled;
+    }
+
+    /**
+     * @return whether the classpath scan is limited to the packages of the classes named in the mapping files; not
+     * for {@link #isMetadataOnlyVerificationEnabled()}, which resolves nested and inherited properties from the scan
+     */
+    public boolean isScanRestrictedToReferencedPackages() {
+        return scanRestrictedToReferencedPackages;
+    }
+
+    /**
+     * @return whether the mappings are verified on the class metadata of the classpath scan instead of on loaded
+     * classes; the mapped classes and converters need to be on {@link #getClassPathDirectories()}, other types are
+     * only known when they belong to the JDK or to Dozer
+     */
+    public boolean isMetadataOnlyVerificationEnabled() {
+        return metadataOnlyVerificationEnabled;
+    }
+
+    /**
+     * @return which of the {@link #getShardCount()} shards of the mapping files is verified, counting from 0
+     */
+    public int getShardIndex() {
+        return shardIndex;
+    }
+
+    /**
+     * @return in how many shards the mapping files are split, by a hash of their path; 1 (the default) verifies all
+     * of them. Every shard keeps its own progress-file and metrics report, next to the configured ones.
+     */
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * @return whether the mapping files are split over several shards
+     */
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    /**
+     * @return glob patterns, relative to the walked directory, of the files to verify; every .xml file when empty
+     */
+    public List<String> getIncludes() {
+        return includes;
+    }
+
+    /**
+     * @return glob patterns, relative to the walked directory, of the files not to verify; directories they exclude,
+     * like {@code **}{@code /target/**}, are not entered at all
+     */
+    public List<String> getExcludes() {
+        return excludes;
+    }
+
+    /**
+     * @return where the mappings of the verified files are written, ranked by their estimated runtime cost, if
+     * anywhere; files skipped as unchanged are ranked as well. The analysis loads the mapped classes, so it cannot be
+     * combined with {@link #isMetadataOnlyVerificationEnabled()}
+     */
+    public Optional<String> getPathToCostReport() {
+        return Optional.ofNullable(pathToCostReport);
+    }
+
+    /**
+     * @return the directory below which plain Java mappers are generated from the verified mappings, for the build
+     * to compile, if anywhere; files skipped as unchanged are generated as well, and mappers no longer generated from
+     * their mapping file are removed. Like the cost analysis the generation loads the mapped classes, so it cannot be
+     * combined with {@link #isMetadataOnlyVerificationEnabled()}
+     */
+    public Optional<String> getPathToGeneratedSources() {
+        return Optional.ofNullable(pathToGeneratedSources);
+    }
 }
@@ -0,0 +1,186 @@
+package be.catsandcoding.dozer.components;
+
+import be.catsandcoding.dozer.components.VerificationMetrics.FileMetrics;
+import be.catsandcoding.dozer.components.VerificationMetrics.Phase;
+import be.catsandcoding.dozer.generated.*;
+import org.apache.tools.ant.BuildException;
+
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * The checks, and their failure messages, shared by the verification on loaded classes and the one on class metadata.
+ * How a class or property is resolved and how a converter is inspected is left to the implementation.
+ *
+ * @param <C> what a resolved class, or the type of a property, is represented by
+ * @param <P> what a resolved property is represented by
+ */
+abstract class AbstractMappingVerification<C, P> implements MappingVerification {
+    private final boolean ignoringErrorsAllowed;
+    private final PrintStream out;
+    private final FileMetrics metrics;
+    private final Set<String> referencedClasses = new TreeSet<>();
+
+    AbstractMappingVerification(boolean ignoringErrorsAllowed, PrintStream out, FileMetrics metrics){
+        this.ignoringErrorsAllowed = ignoringErrorsAllowed;
+        this.out = out;
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return the class of the given, trimmed, name; empty when it cannot be found
+     */
+    abstract Optional<C> resolveClass(String className);
+
+    /**
+     * Resolves a property path on a class, adding the classes visited on the way to the referenced classes.
+     *
+     * @return empty when the class does not have the property
+     */
+    abstract Optional<P> resolveProperty(C clazz, String name);
+
+    /**
+     * @return the type of the field of the property or, without a field, the return type of its getter
+     */
+    abstract Optional<C> getType(P property);
+
+    abstract String getDisplayName(C clazz);
+
+    abstract void addReferencedClass(C clazz);
+
+    abstract boolean isDozerConverter(C converter);
+
+    abstract boolean hasConvertTo(C converter, C fromType, C toType);
+
+    abstract boolean hasConvertFrom(C converter, C fromType, C toType);
+
+    @Override
+    public Set<String> getReferencedClasses() {
+        return Collections.unmodifiableSet(referencedClasses);
+    }
+
+    void addReferencedClassName(String className){
+        referencedClasses.add(className);
+    }
+
+    @Override
+    public void verifyConfiguration(Configuration configuration, String pathToXmlResource){
+        if(configuration == null || configuration.getCustomConverters() == null) { return; }
+
+        for(ConverterType converter: configuration.getCustomConverters().getConverter()){
+            assureClassExists(converter.getClassA().getContent(),"class-a", pathToXmlResource);
+            assureClassExists(converter.getClassB().getContent(),"class-b", pathToXmlResource);
+
+            C classConverter = assureClassExists(converter.getType(), "custom-converter", pathToXmlResource);
+            long start = System.nanoTime();
+            try {
+                verifyIsDozerConverter(classConverter, converter.getType(), pathToXmlResource);
+            } finally {
+                metrics.record(Phase.CONVERTER_CHECKS, start);
+            }
+        }
+    }
+
+    private C assureClassExists(String className, String attribute, String pathToXmlResource){
+        long start = System.nanoTime();
+        Optional<C> resolved = resolveClass(className.trim());
+        metrics.record(Phase.CLASS_RESOLUTION, start);
+        C clazz = resolved.orElseThrow(() -> new BuildException(problem(pathToXmlResource, attribute,
+                String.format("%s could not be instantiated", className))));
+        addReferencedClass(clazz);
+        return clazz;
+    }
+
+    @Override
+    public void verifyMappings(List<Mapping> mappings, String pathToXmlResource){
+        if(mappings == null) { return; }
+
+        for(Mapping mapping: mappings) {
+            metrics.countMapping();
+            // verify all classes exist and they have the getters for the fields specified
+            C classFrom = assureClassExists(mapping.getClassA().getContent(), "class-a", pathToXmlResource);
+            C classTo = assureClassExists(mapping.getClassB().getContent(), "class-b", pathToXmlResource);
+
+            List<Field> fields = mapping.getFieldOrFieldExclude().stream().filter(f -> f instanceof Field)
+                    .map(f -> (Field) f).collect(Collectors.toList());
+            for(Field field: fields){
+                P fromField = handleField(field.getA(), classFrom, pathToXmlResource,"a");
+                P toField = handleField(field.getB(), classTo, pathToXmlResource, "b");
+
+                // verify custom-converters on field
+                if(fromField != null && toField != null) {
+                    verifyFieldConverter(field, pathToXmlResource, fromField, toField);
+                }
+            }
+        }
+    }
+
+    private P handleField(FieldDefinition fieldDefinition, C clazz, String pathToXmlResource, String indicator){
+        long start = System.nanoTime();
+        Optional<P> property = resolveProperty(clazz, fieldDefinition.getContent());
+        metrics.record(Phase.FIELD_RESOLUTION, start);
+        if(property.isPresent()){
+            return property.get();
+        }
+
+        report(problem(pathToXmlResource, "class-" + indicator, String.format("%s does not have the necessary field %s",
+                getDisplayName(clazz), fieldDefinition.getContent())));
+        return null;
+    }
+
+    private void verifyFieldConverter(Field field, String pathToXmlResource, P fromProperty, P toProperty) {
+        if(field.getCustomConverter() == null) { return; }
+
+        C classConverter = assureClassExists(field.getCustomConverter(), "custom-converter", pathToXmlResource);
+        long start = System.nanoTime();
+        try {
+            verifyConverterMethods(classConverter, field, pathToXmlResource, fromProperty, toProperty);
+        } finally {
+            metrics.record(Phase.CONVERTER_CHECKS, start);
+        }
+    }
+
+    private void verifyIsDozerConverter(C classConverter, String converterName, String pathToXmlResource){
+        // make sure that we extend org.dozer.DozerConverter somewhere in the hierarchy
+        if(!isDozerConverter(classConverter)){
+            report(problem(pathToXmlResource, "custom-converter",
+                    String.format("%s is not an instance of org.dozer.DozerConverter", converterName)));
+        }
+    }
+
+    private void verifyConverterMethods(C classConverter, Field field, String pathToXmlResource, P fromProperty, P toProperty) {
+        verifyIsDozerConverter(classConverter, field.getCustomConverter(), pathToXmlResource);
+
+        C fromField = getType(fromProperty).orElseThrow(() -> new BuildException("Necessary field not found and getter method is missing"));
+        C toField = getType(toProperty).orElseThrow(() -> new BuildException("Necessary field not found and getter method is missing"));
+
+        // verify method exists and has the proper parameter
+        if(!hasConvertTo(classConverter, fromField, toField)){
+            report(problem(pathToXmlResource, "custom-converter",
+                    String.format("%s does not have the correct convertTo method", field.getCustomConverter())));
+        }
+        // if the mapping is bi-directional swap parameter and return type
+        if(Type.BI_DIRECTIONAL.equals(field.getType()) && !hasConvertFrom(classConverter, fromField, toField)){
+            report(problem(pathToXmlResource, "custom-converter",
+                    String.format("%s does not have the correct convertTo method", field.getCustomConverter())));
+        }
+    }
+
+    private static String problem(String pathToXmlResource, String attribute, String problem){
+        return String.format("Problem with mapping%n%s [%s]: %s", pathToXmlResource, attribute, problem);
+    }
+
+    // a problem that, unlike a class that cannot be found, is only printed when ignoring errors is allowed
+    private void report(String msg){
+        if(ignoringErrorsAllowed){
+            out.println(msg);
+        } else {
+            throw new BuildException(msg);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package be.catsandcoding.dozer.components;
+
+import io.github.classgraph.ClassGraph;
+import io.github.classgraph.ClassInfo;
+import io.github.classgraph.ScanResult;
+
+import javax.xml.bind.DatatypeConverter;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+
+/**
+ * The part of a classpath scan the class loading and the fingerprints need, kept in a compact binary file between
+ * runs: for every classpath entry the classes it holds, where their class file is and what they extend.
+ * <p>
+ * Entries are fingerprinted on their path, size and last modification, for directories those of every class file
+ * below them. Unchanged entries are taken from the file, only the others are scanned again. The empty entry, the
+ * working directory, is not indexed.
+ */
+class ClassIndex {
+    private static final int MAGIC = 0x444D5643;
+    private static final int VERSION = 1;
+
+    private final Map<String, IndexedClass> classes = new HashMap<>();
+    private int rescannedEntries = 0;
+
+    private ClassIndex(){
+    }
+
+    /**
+     * Loads the index for the given classpath, scanning the entries that changed since it was saved, and saves it
+     * again when anything was scanned.
+     * @param acceptedPackages the packages to scan, all of them when empty
+     */
+    static ClassIndex load(Path file, List<String> paths, List<String> acceptedPackages){
+        Map<String, Entry> saved = read(file, acceptedPackages);
+        List<Entry> entries = new ArrayList<>();
+        ClassIndex index = new ClassIndex();
+        for(String path: paths){
+            // the empty entry is the working directory, not part of the project's classpath; walking it for its
+            // fingerprint would take in target/, .git/ and whatever else lives there, every run
+            if(path.isEmpty()) { continue; }
+            Path location = Paths.get(path).toAbsolutePath().normalize();
+            String fingerprint = fingerprint(location);
+            Entry entry = saved.get(location.toString());
+            if(entry == null || fingerprint.isEmpty() || !entry.fingerprint.equals(fingerprint)){
+                entry = scan(location, fingerprint, acceptedPackages);
+                index.rescannedEntries++;
+            }
+            entries.add(entry);
+            // like on the classpath itself, the first entry holding a class wins
+            entry.classes.forEach(index.classes::putIfAbsent);
+        }
+        if(index.rescannedEntries > 0 || saved.size() != entries.size()){
+            write(file, acceptedPackages, entries);
+        }
+        return index;
+    }
+
+    /**
+     * @return how many classpath entries had to be scanned because they were new or changed
+     */
+    int getRescannedEntries() {
+        return rescannedEntries;
+    }
+
+    boolean contains(String fullyQualifiedClassName){
+        return classes.containsKey(fullyQualifiedClassName);
+    }
+
+    /**
+     * @return the class itself followed by its superclasses found on the indexed classpath
+     */
+    List<String> getHierarchy(String fullyQualifiedClassName){
+        List<String> hierarchy = new ArrayList<>();
+        for(String name = fullyQualifiedClassName; name != null && classes.containsKey(name) && !hierarchy.contains(name);
+            name = classes.get(name).superclass){
+            hierarchy.add(name);
+        }
+        return hierarchy;
+    }
+
+    /**
+     * @return the class file of an indexed class
+     */
+    byte[] readClassFile(String fullyQualifiedClassName) throws IOException {
+        IndexedClass indexed = classes.get(fullyQualifiedClassName);
+        if(indexed == null) { throw new FileNotFoundException(fullyQualifiedClassName); }
+        if(Files.isDirectory(indexed.entry)){
+            return Files.readAllBytes(indexed.entry.resolve(indexed.resourcePath));
+        }
+        try(JarFile jar = new JarFile(indexed.entry.toFile())){
+            ZipEntry zipEntry = jar.getEntry(indexed.resourcePath);
+            if(zipEntry == null) { throw new FileNotFoundException(indexed.resourcePath); }
+            try(InputStream in = jar.getInputStream(zipEntry)){
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                byte[] buffer = new byte[8192];
+                for(int read = in.read(buffer); read != -1; read = in.read(buffer)){
+                    bytes.write(buffer, 0, read);
+                }
+                return bytes.toByteArray();
+            }
+        }
+    }
+
+    private static Entry scan(Path location, String fingerprint, List<String> acceptedPackages){
+        Entry entry = new Entry(location.toString(), fingerprint);
+        if(!Files.exists(location)) { return entry; }
+        // superclasses on other entries are external to this scan, they are still needed by name
+        ClassGraph classGraph = new ClassGraph().enableClassInfo().ignoreClassVisibility().enableExternalClasses()
+                .overrideClasspath(location.toString());
+        if(!acceptedPackages.isEmpty()){
+            classGraph.acceptPackages(acceptedPackages.toArray(new String[0]));
+        }
+        try(ScanResult scanResult = classGraph.scan()){
+            for(ClassInfo classInfo: scanResult.getAllClasses()){
+                if(classInfo.isExternalClass() || classInfo.getResource() == null) { continue; }
+                ClassInfo superclass = classInfo.getSuperclass();
+                entry.classes.put(classInfo.getName(), new IndexedClass(location, classInfo.getResource().getPath(),
+                        superclass == null || Object.class.getName().equals(superclass.getName()) ? null : superclass.getName()));
+            }
+        }
+        return entry;
+    }
+
+    private static String fingerprint(Path location){
+        try {
+            MessageDigest md = MessageDigest.getInstance("MD5");
+            if(Files.isDirectory(location)){
+                List<Path> classFiles;
+                try(Stream<Path> files = Files.walk(location)){
+                    classFiles = files.filter(p -> p.toString().endsWith(".class") && Files.isRegularFile(p))
+                            .sorted().collect(Collectors.toList());
+                }
+                for(Path classFile: classFiles){
+                    md.update(String.format("%s|%d|%d%n", location.relativize(classFile), Files.size(classFile),
+                            Files.getLastModifiedTime(classFile).toMillis()).getBytes(StandardCharsets.UTF_8));
+                }
+            } else if(Files.exists(location)){
+                md.update(String.format("%d|%d", Files.size(location), Files.getLastModifiedTime(location).toMillis())
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+            return DatatypeConverter.printHexBinary(md.digest());
+        } catch (IOException | UncheckedIOException | NoSuchAlgorithmException e){
+            // an entry that cannot be fingerprinted is scanned every run
+            return "";
+        }
+    }
+
+    private static Map<String, Entry> read(Path file, List<String> acceptedPackages){
+        Map<String, Entry> found = new HashMap<>();
+        if(!Files.exists(file)) { return found; }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if(in.readInt() != MAGIC || in.readInt() != VERSION){
+                throw new IOException("not a class index of this version");
+            }
+            List<String> packages = new ArrayList<>();
+            for(int count = in.readInt(); count > 0; count--){
+                packages.add(in.readUTF());
+            }
+            // entries scanned for other packages are of no use
+            if(!packages.equals(acceptedPackages)) { return found; }
+            for(int entries = in.readInt(); entries > 0; entries--){
+                Entry entry = new Entry(in.readUTF(), in.readUTF());
+                Path location = Paths.get(entry.path);
+                for(int count = in.readInt(); count > 0; count--){
+                    String name = in.readUTF();
+                    String resourcePath = in.readUTF();
+                    String superclass = in.readUTF();
+                    entry.classes.put(name, new IndexedClass(location, resourcePath, superclass.isEmpty() ? null : superclass));
+                }
+                found.put(entry.path, entry);
+            }
+        } catch (IOException ignored) {
+            found.clear();
+            System.out.printf("DozerMappingVerification: could not load class index at %s.%n", file);
+        }
+        return found;
+    }
+
+    private static void write(Path file, List<String> acceptedPackages, List<Entry> entries){
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(acceptedPackages.size());
+                for(String acceptedPackage: acceptedPackages){
+                    out.writeUTF(acceptedPackage);
+                }
+                out.writeInt(entries.size());
+                for(Entry entry: entries){
+                    out.writeUTF(entry.path);
+                    out.writeUTF(entry.fingerprint);
+                    out.writeInt(entry.classes.size());
+                    for(Map.Entry<String, IndexedClass> indexed: entry.classes.entrySet()){
+                        out.writeUTF(indexed.getKey());
+                        out.writeUTF(indexed.getValue().resourcePath);
+                        out.writeUTF(indexed.getValue().superclass == null ? "" : indexed.getValue().superclass);
+                    }
+                }
+            }
+            try {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ignored) {
+            System.out.printf("DozerMappingVerification: could not save class index at %s, the classpath will be scanned again next run.%n", file);
+        }
+    }
+
+    private static final class Entry {
+        private final String path;
+        private final String fingerprint;
+        private final Map<String, IndexedClass> classes = new LinkedHashMap<>();
+
+        private Entry(String path, String fingerprint){
+            this.path = path;
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    private static final class IndexedClass {
+        private final Path entry;
+        private final String resourcePath;
+        private final String superclass;
+
+        private IndexedClass(Path entry, String resourcePath, String superclass){
+            this.entry = entry;
+            this.resourcePath = resourcePath;
+            this.superclass = superclass;
+        }
+    }
+}
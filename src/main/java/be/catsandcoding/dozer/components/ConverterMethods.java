@@ -0,0 +1,68 @@
+package be.catsandcoding.dozer.components;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The convertTo and convertFrom overloads of a single converter class, indexed once so every signature check
+ * against it is a lookup. The outcome of each convertTo check is remembered per pair of field types.
+ */
+final class ConverterMethods {
+    private final Set<String> publicMethodNames = new HashSet<>();
+    private final List<Method> convertTo = new ArrayList<>();
+    private final Map<List<Class<?>>, Method> declaredConvertFrom = new HashMap<>();
+    private final Map<List<Class<?>>, Boolean> convertToMatches = new ConcurrentHashMap<>();
+
+    ConverterMethods(Class<?> converter){
+        for(Method method: converter.getMethods()){
+            publicMethodNames.add(method.getName());
+            if(method.getName().equals("convertTo") && method.getParameterCount() == 2){
+                convertTo.add(method);
+            }
+        }
+        for(Method method: converter.getDeclaredMethods()){
+            if(!method.getName().equals("convertFrom")) { continue; }
+            // like Class#getDeclaredMethod, the most specific return type wins among equal parameters
+            declaredConvertFrom.merge(Arrays.asList(method.getParameterTypes()), method,
+                    (found, other) -> found.getReturnType().isAssignableFrom(other.getReturnType()) ? other : found);
+        }
+    }
+
+    /**
+     * @return whether it has public convertTo and convertFrom methods, as every org.dozer.DozerConverter does
+     */
+    boolean isDozerConverter(){
+        return publicMethodNames.contains("convertTo") && publicMethodNames.contains("convertFrom");
+    }
+
+    /**
+     * @return whether a public convertTo(from, to) returning to exists, either by name or by assignability
+     */
+    boolean hasConvertTo(Class<?> fromField, Class<?> toField){
+        return convertToMatches.computeIfAbsent(Collections.unmodifiableList(Arrays.asList(fromField, toField)),
+                key -> convertTo.stream().anyMatch(m ->
+                        (Objects.equals(m.getParameterTypes()[0].getCanonicalName(), fromField.getCanonicalName()) &&
+                                Objects.equals(m.getParameterTypes()[1].getCanonicalName(), toField.getCanonicalName()) &&
+                                Objects.equals(m.getReturnType().getCanonicalName(), toField.getCanonicalName())) ||
+                        (m.getParameterTypes()[0].isAssignableFrom(fromField) &&
+                                m.getParameterTypes()[1].isAssignableFrom(toField) &&
+                                m.getReturnType().isAssignableFrom(toField))));
+    }
+
+    /**
+     * @return whether convertFrom(to, from) is declared by the converter itself and returns exactly from
+     */
+    boolean hasConvertFrom(Class<?> fromField, Class<?> toField){
+        Method method = declaredConvertFrom.get(Arrays.asList(toField, fromField));
+        return method != null && method.getReturnType().equals(fromField);
+    }
+}
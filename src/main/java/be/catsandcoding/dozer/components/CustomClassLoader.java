@@ -2,31 +2,251 @@ package be.catsandcoding.dozer.components;
 
 import io.github.classgraph.*;
 
+import javax.xml.bind.DatatypeConverter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
-public class CustomClassLoader {
+/**
+ * Resolves classes against the configured classpath.
+ * The classpath is scanned once, on the first lookup, and the scan result is kept for the lifetime of this
+ * loader so every following lookup is resolved from that index. Close the loader at the end of the run.
+ * <p>
+ * Only class info is gathered, unless member info is asked for, and when packages are given only those packages
+ * are scanned. Classes outside of them can still be loaded, they are just not part of the index. Member info
+ * always comes with a scan of every package, as the members refer to classes outside the given packages.
+ * <p>
+ * When given a file to keep a {@link ClassIndex} in, and no member info is needed, that index replaces the scan:
+ * only the classpath entries that changed since the previous run are scanned, and classes are loaded through a
+ * plain {@link URLClassLoader} over the classpath. Classes the index does not hold are not looked for on the
+ * classpath, and the working directory, which the scan includes, is left out.
+ */
+public class CustomClassLoader implements AutoCloseable {
     private final List<String> paths = new ArrayList<>();
+    private final List<String> acceptedPackages = new ArrayList<>();
+    private final boolean memberInfoEnabled;
+    private final Path classIndexFile;
+    private final Map<String, Optional<Class<?>>> loadedClasses = new ConcurrentHashMap<>();
+    private final Map<String, Optional<String>> fingerprints = new ConcurrentHashMap<>();
+    private final CacheStatistics classStatistics = new CacheStatistics();
+    private final CacheStatistics fingerprintStatistics = new CacheStatistics();
+    private ScanResult scanResult;
+    private ClassIndex classIndex;
+    private URLClassLoader classpathLoader;
+    private long scanNanos = 0;
 
     public CustomClassLoader(String... paths){
         this(Arrays.asList(paths.clone()));
     }
     public CustomClassLoader(List<String> paths) {
+        this(paths, Collections.emptyList());
+    }
+
+    /**
+     * @param acceptedPackages the packages to scan, all of them when empty
+     */
+    public CustomClassLoader(List<String> paths, Collection<String> acceptedPackages) {
+        this(paths, acceptedPackages, false);
+    }
+
+    /**
+     * @param memberInfoEnabled also index the fields, methods and annotations of every class, including
+     *                          non-public ones, so they can be inspected through {@link #getClassInfo(String)}
+     */
+    public CustomClassLoader(List<String> paths, Collection<String> acceptedPackages, boolean memberInfoEnabled) {
+        this(paths, acceptedPackages, memberInfoEnabled, null);
+    }
+
+    /**
+     * @param classIndexFile where the class index is kept between runs, null to scan the classpath every run
+     */
+    public CustomClassLoader(List<String> paths, Collection<String> acceptedPackages, boolean memberInfoEnabled,
+                             Path classIndexFile) {
         this.paths.add("");
         this.paths.addAll(paths);
+        this.acceptedPackages.addAll(acceptedPackages);
+        this.memberInfoEnabled = memberInfoEnabled;
+        this.classIndexFile = classIndexFile;
+    }
+
+    // member info only comes with a full scan
+    private boolean isIndexed(){
+        return classIndexFile != null && !memberInfoEnabled;
     }
 
     public Optional<Class<?>> loadClass(String fullyQualifiedClassName){
-        try (ScanResult scanResult = new ClassGraph().enableAllInfo()
-                .overrideClasspath(paths)
-                .scan()) {
-            String path = scanResult.getClasspath();
-            return Optional.ofNullable(scanResult.loadClass(fullyQualifiedClassName, true));
+        Optional<Class<?>> loaded = loadedClasses.get(fullyQualifiedClassName);
+        if(loaded != null){
+            classStatistics.hit();
+            return loaded;
         }
+        classStatistics.miss();
+        return loadedClasses.computeIfAbsent(fullyQualifiedClassName,
+                name -> isIndexed() ? loadIndexedClass(name) : Optional.ofNullable(getScanResult().loadClass(name, true)));
     }
 
+    // the index tells which classes the classpath holds: a class of an indexed package it does not know is only
+    // looked for in the parent loader, without searching every classpath entry for it
+    private Optional<Class<?>> loadIndexedClass(String fullyQualifiedClassName){
+        try {
+            ClassLoader classpathLoader = getClasspathLoader();
+            ClassLoader loader = getClassIndex().contains(fullyQualifiedClassName) || !isIndexedPackage(fullyQualifiedClassName) ?
+                    classpathLoader : classpathLoader.getParent();
+            return Optional.of(Class.forName(fullyQualifiedClassName, true, loader));
+        } catch (ClassNotFoundException | LinkageError | IOException e) {
+            return Optional.empty();
+        }
+    }
 
+    private boolean isIndexedPackage(String fullyQualifiedClassName){
+        return acceptedPackages.isEmpty()
+                || acceptedPackages.stream().anyMatch(acceptedPackage -> fullyQualifiedClassName.startsWith(acceptedPackage + "."));
+    }
 
+    /**
+     * Fingerprints the bytecode of a class without loading it. For classes found by the scan the class files of
+     * its scanned superclasses are included, as they take part in the field resolution as well.
+     * @return a hash of the class file(s), or empty when no class file could be found
+     */
+    public Optional<String> getFingerprint(String fullyQualifiedClassName){
+        Optional<String> fingerprint = fingerprints.get(fullyQualifiedClassName);
+        if(fingerprint != null){
+            fingerprintStatistics.hit();
+            return fingerprint;
+        }
+        fingerprintStatistics.miss();
+        return fingerprints.computeIfAbsent(fullyQualifiedClassName, this::computeFingerprint);
+    }
+
+    /**
+     * @return the metadata of a class found by the scan, without loading it; empty for classes outside the scan
+     */
+    public Optional<ClassInfo> getClassInfo(String fullyQualifiedClassName){
+        ClassInfo classInfo = getScanResult().getClassInfo(fullyQualifiedClassName);
+        return classInfo == null || classInfo.isExternalClass() ? Optional.empty() : Optional.of(classInfo);
+    }
+
+    public CacheStatistics getClassStatistics() {
+        return classStatistics;
+    }
+
+    public CacheStatistics getFingerprintStatistics() {
+        return fingerprintStatistics;
+    }
+
+    /**
+     * @return how long scanning the classpath, or loading its index, took; 0 as long as neither was done
+     */
+    public synchronized long getScanNanos() {
+        return scanNanos;
+    }
+
+    private Optional<String> computeFingerprint(String fullyQualifiedClassName){
+        try {
+            MessageDigest md = MessageDigest.getInstance("MD5");
+            ClassInfo classInfo = isIndexed() ? null : getScanResult().getClassInfo(fullyQualifiedClassName);
+            if(isIndexed() && getClassIndex().contains(fullyQualifiedClassName)){
+                for(String name: getClassIndex().getHierarchy(fullyQualifiedClassName)){
+                    md.update(getClassIndex().readClassFile(name));
+                }
+            } else if(classInfo != null){
+                md.update(classInfo.getResource().load());
+                for(ClassInfo superclass: classInfo.getSuperclasses()){
+                    if(superclass.getResource() != null) {
+                        md.update(superclass.getResource().load());
+                    }
+                }
+            } else {
+                try(InputStream in = getClasspathLoader().getResourceAsStream(fullyQualifiedClassName.replace('.', '/') + ".class")){
+                    if(in == null){ return Optional.empty(); }
+                    byte[] buffer = new byte[8192];
+                    for(int read = in.read(buffer); read != -1; read = in.read(buffer)){
+                        md.update(buffer, 0, read);
+                    }
+                }
+            }
+            return Optional.of(DatatypeConverter.printHexBinary(md.digest()));
+        } catch (IOException | NoSuchAlgorithmException e){
+            return Optional.empty();
+        }
+    }
+
+    private synchronized ScanResult getScanResult(){
+        if(scanResult == null){
+            long start = System.nanoTime();
+            // superclasses are the only metadata the fingerprints need
+            ClassGraph classGraph = new ClassGraph().enableClassInfo().ignoreClassVisibility()
+                    .overrideClasspath(paths);
+            if(memberInfoEnabled){
+                classGraph.enableFieldInfo().ignoreFieldVisibility()
+                        .enableMethodInfo().ignoreMethodVisibility()
+                        .enableAnnotationInfo()
+                        // superclasses and interfaces outside the scan are still listed by name
+                        .enableExternalClasses();
+            }
+            // with member info the types of nested properties and the superclasses are resolved from the scan as
+            // well, they live in any package, not only in those of the mapped classes
+            if(!acceptedPackages.isEmpty() && !memberInfoEnabled){
+                classGraph.acceptPackages(acceptedPackages.toArray(new String[0]));
+            }
+            scanResult = classGraph.scan();
+            scanNanos = System.nanoTime() - start;
+        }
+        return scanResult;
+    }
+
+    private synchronized ClassIndex getClassIndex(){
+        if(classIndex == null){
+            long start = System.nanoTime();
+            classIndex = ClassIndex.load(classIndexFile, paths, acceptedPackages);
+            scanNanos = System.nanoTime() - start;
+        }
+        return classIndex;
+    }
+
+    // reads the class files that are not part of the scan, and loads the classes when an index replaces the scan
+    private synchronized ClassLoader getClasspathLoader() throws IOException {
+        if(classpathLoader == null){
+            List<URL> urls = new ArrayList<>();
+            for(String path: paths){
+                // the working directory is not indexed, classes there would be found by the loader but not the index
+                if(path.isEmpty() && isIndexed()) { continue; }
+                urls.add(Paths.get(path).toUri().toURL());
+            }
+            classpathLoader = new URLClassLoader(urls.toArray(new URL[0]), Thread.currentThread().getContextClassLoader());
+        }
+        return classpathLoader;
+    }
+
+    @Override
+    public synchronized void close() {
+        if(scanResult != null){
+            scanResult.close();
+            scanResult = null;
+        }
+        classIndex = null;
+        if(classpathLoader != null){
+            try {
+                classpathLoader.close();
+            } catch (IOException ignored) {
+                // nothing left to release
+            }
+            classpathLoader = null;
+        }
+        loadedClasses.clear();
+        fingerprints.clear();
+    }
 }
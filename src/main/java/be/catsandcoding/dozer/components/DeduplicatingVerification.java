@@ -0,0 +1,164 @@
+package be.catsandcoding.dozer.components;
+
+import be.catsandcoding.dozer.components.VerificationMetrics.FileMetrics;
+import be.catsandcoding.dozer.generated.*;
+import org.apache.tools.ant.BuildException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Verifies every distinct mapping and custom converter only once per run. Mapping files tend to repeat the same
+ * class pairs and configuration: the verdict of the first copy, its output and failure, is kept under the
+ * normalized element and replayed, with the right path, for every other file that contains it.
+ */
+class DeduplicatingVerification implements MappingVerification {
+    // stands in for the path of the file while a verdict is recorded, so it can be replayed for any file
+    private static final String PATH_PLACEHOLDER = "\u0000pathToXmlResource\u0000";
+    private static final String ENCODING = "UTF-8";
+
+    private final Map<String, Verdict> verdicts;
+    private final CacheStatistics statistics;
+    private final Function<PrintStream, MappingVerification> verificationFactory;
+    private final PrintStream out;
+    private final FileMetrics metrics;
+    private final Set<String> referencedClasses = new TreeSet<>();
+
+    /**
+     * @param verdicts shared by all verifications of a run
+     * @param verificationFactory creates the verification that does the actual checks, printing to the given stream
+     */
+    DeduplicatingVerification(Map<String, Verdict> verdicts, CacheStatistics statistics,
+                              Function<PrintStream, MappingVerification> verificationFactory, PrintStream out,
+                              FileMetrics metrics){
+        this.verdicts = verdicts;
+        this.statistics = statistics;
+        this.verificationFactory = verificationFactory;
+        this.out = out;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Set<String> getReferencedClasses() {
+        return Collections.unmodifiableSet(referencedClasses);
+    }
+
+    @Override
+    public void verifyConfiguration(Configuration configuration, String pathToXmlResource) {
+        if(configuration == null || configuration.getCustomConverters() == null) { return; }
+
+        for(ConverterType converter: configuration.getCustomConverters().getConverter()){
+            Configuration single = new Configuration();
+            single.setCustomConverters(new CustomConverters());
+            single.getCustomConverters().getConverter().add(converter);
+            replay(getVerdict(keyOf(converter), verification -> verification.verifyConfiguration(single, PATH_PLACEHOLDER)),
+                    pathToXmlResource);
+        }
+    }
+
+    @Override
+    public void verifyMappings(List<Mapping> mappings, String pathToXmlResource) {
+        if(mappings == null) { return; }
+
+        for(Mapping mapping: mappings){
+            String key = keyOf(mapping);
+            if(verdicts.containsKey(key)){
+                // a mapping that is actually verified is counted by the verification itself
+                metrics.countMapping();
+            }
+            replay(getVerdict(key, verification -> verification.verifyMappings(Collections.singletonList(mapping), PATH_PLACEHOLDER)),
+                    pathToXmlResource);
+        }
+    }
+
+    private Verdict getVerdict(String key, Consumer<MappingVerification> check){
+        Verdict verdict = verdicts.get(key);
+        if(verdict != null){
+            statistics.hit();
+            return verdict;
+        }
+        statistics.miss();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        BuildException failure = null;
+        MappingVerification verification;
+        try {
+            verification = verificationFactory.apply(new PrintStream(output, true, ENCODING));
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+        try {
+            check.accept(verification);
+        } catch (BuildException e) {
+            failure = e;
+        }
+        try {
+            verdict = new Verdict(output.toString(ENCODING), failure, verification.getReferencedClasses());
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+        Verdict existing = verdicts.putIfAbsent(key, verdict);
+        return existing == null ? verdict : existing;
+    }
+
+    private void replay(Verdict verdict, String pathToXmlResource){
+        referencedClasses.addAll(verdict.referencedClasses);
+        out.print(verdict.output.replace(PATH_PLACEHOLDER, pathToXmlResource));
+        if(verdict.failure != null){
+            // the original failure, with the placeholder still in its message, is kept as the cause for its stack trace
+            String message = verdict.failure.getMessage();
+            throw new BuildException(message == null ? null : message.replace(PATH_PLACEHOLDER, pathToXmlResource),
+                    verdict.failure);
+        }
+    }
+
+    private static String keyOf(ConverterType converter){
+        return String.join("\n", "converter", trim(converter.getType()), contentOf(converter.getClassA()),
+                contentOf(converter.getClassB()));
+    }
+
+    // only what the verification looks at takes part, field-exclude and hints do not
+    private static String keyOf(Mapping mapping){
+        StringBuilder key = new StringBuilder("mapping\n").append(contentOf(mapping.getClassA())).append('\n')
+                .append(contentOf(mapping.getClassB()));
+        for(Object fieldOrFieldExclude: mapping.getFieldOrFieldExclude()){
+            if(!(fieldOrFieldExclude instanceof Field)) { continue; }
+            Field field = (Field) fieldOrFieldExclude;
+            key.append('\n').append(field.getA() == null ? null : trim(field.getA().getContent()))
+                    .append('\t').append(field.getB() == null ? null : trim(field.getB().getContent()))
+                    .append('\t').append(trim(field.getCustomConverter()))
+                    .append('\t').append(field.getType());
+        }
+        return key.toString();
+    }
+
+    private static String contentOf(be.catsandcoding.dozer.generated.Class clazz){
+        return clazz == null ? null : trim(clazz.getContent());
+    }
+
+    private static String trim(String value){
+        return value == null ? null : value.trim();
+    }
+
+    /**
+     * The outcome of verifying a single mapping or converter, with a placeholder where the path of the file goes.
+     */
+    static final class Verdict {
+        private final String output;
+        private final BuildException failure;
+        private final Set<String> referencedClasses;
+
+        private Verdict(String output, BuildException failure, Set<String> referencedClasses){
+            this.output = output;
+            this.failure = failure;
+            this.referencedClasses = Collections.unmodifiableSet(new TreeSet<>(referencedClasses));
+        }
+    }
+}
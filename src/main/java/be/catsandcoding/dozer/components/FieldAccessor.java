@@ -0,0 +1,22 @@
+package be.catsandcoding.dozer.components;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+
+final class FieldAccessor{
+    private final Optional<Method> getProperty;
+    private final Optional<java.lang.reflect.Field> field;
+
+    public FieldAccessor(java.lang.reflect.Field field, Method getProperty){
+        this.field = Optional.ofNullable(field);
+        this.getProperty = Optional.ofNullable(getProperty);
+    }
+
+    public Optional<Method> getPropertyMethod() {
+        return getProperty;
+    }
+
+    public Optional<java.lang.reflect.Field> getField() {
+        return field;
+    }
+}
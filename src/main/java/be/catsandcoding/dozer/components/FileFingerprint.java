@@ -0,0 +1,52 @@
+package be.catsandcoding.dozer.components;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * What is remembered of a successfully verified mapping file: its size, last modification time,
+ * a hash of its raw bytes and the fingerprint of every class its verification depended on.
+ */
+public final class FileFingerprint {
+    private final long size;
+    private final long lastModified;
+    private final String hash;
+    private final Map<String, String> classFingerprints;
+
+    public FileFingerprint(long size, long lastModified, String hash, Map<String, String> classFingerprints){
+        this.size = size;
+        this.lastModified = lastModified;
+        this.hash = hash;
+        this.classFingerprints = new HashMap<>(classFingerprints);
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public Map<String, String> getClassFingerprints() {
+        return Collections.unmodifiableMap(classFingerprints);
+    }
+
+    FileFingerprint withSizeAndLastModified(long size, long lastModified){
+        return new FileFingerprint(size, lastModified, hash, classFingerprints);
+    }
+
+    boolean hasSameSizeAndLastModified(long size, long lastModified){
+        return this.size == size && this.lastModified == lastModified;
+    }
+
+    boolean hasSameContent(long size, String hash){
+        return this.size == size && Objects.equals(this.hash, hash);
+    }
+}
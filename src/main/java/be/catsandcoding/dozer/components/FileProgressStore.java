@@ -0,0 +1,116 @@
+package be.catsandcoding.dozer.components;
+
+import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps progress in a compact binary file. Results are written in batches and at the end of the run; every write
+ * goes to a temporary file that then replaces the progress-file, so a crash never leaves a half written store.
+ */
+public class FileProgressStore implements ProgressStore {
+    public static final int DEFAULT_BATCH_SIZE = 50;
+
+    private static final int MAGIC = 0x444D5650;
+    private static final int VERSION = 1;
+
+    private final Path file;
+    private final int batchSize;
+    private final Map<String, FileFingerprint> processed;
+    private int unflushed = 0;
+
+    public FileProgressStore(Path file){
+        this(file, DEFAULT_BATCH_SIZE);
+    }
+
+    public FileProgressStore(Path file, int batchSize){
+        this.file = file;
+        this.batchSize = Math.max(1, batchSize);
+        this.processed = load(file);
+    }
+
+    private static Map<String, FileFingerprint> load(Path file){
+        Map<String, FileFingerprint> found = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if(in.readInt() != MAGIC || in.readInt() != VERSION){
+                throw new IOException("not a progress-file of this version");
+            }
+            for(int entries = in.readInt(); entries > 0; entries--){
+                String path = in.readUTF();
+                long size = in.readLong();
+                long lastModified = in.readLong();
+                String hash = in.readUTF();
+                Map<String, String> classFingerprints = new HashMap<>();
+                for(int classes = in.readInt(); classes > 0; classes--){
+                    classFingerprints.put(in.readUTF(), in.readUTF());
+                }
+                found.put(path, new FileFingerprint(size, lastModified, hash, classFingerprints));
+            }
+        } catch (IOException ignored) {
+            found.clear();
+            System.out.printf("DozerMappingVerification: could not load progress-file at %s.%n", file);
+        }
+        return found;
+    }
+
+    @Override
+    public synchronized Optional<FileFingerprint> get(String pathToXmlResource) {
+        return Optional.ofNullable(processed.get(pathToXmlResource));
+    }
+
+    synchronized Map<String, FileFingerprint> getAll() {
+        return new HashMap<>(processed);
+    }
+
+    @Override
+    public synchronized void put(String pathToXmlResource, FileFingerprint fingerprint) {
+        processed.put(pathToXmlResource, fingerprint);
+        if(++unflushed >= batchSize){
+            flush();
+        }
+    }
+
+    @Override
+    public synchronized void flush() {
+        if(unflushed == 0) { return; }
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(processed.size());
+                for (Map.Entry<String, FileFingerprint> entry : processed.entrySet()) {
+                    FileFingerprint fingerprint = entry.getValue();
+                    out.writeUTF(entry.getKey());
+                    out.writeLong(fingerprint.getSize());
+                    out.writeLong(fingerprint.getLastModified());
+                    out.writeUTF(fingerprint.getHash());
+                    out.writeInt(fingerprint.getClassFingerprints().size());
+                    for (Map.Entry<String, String> classFingerprint : fingerprint.getClassFingerprints().entrySet()) {
+                        out.writeUTF(classFingerprint.getKey());
+                        out.writeUTF(classFingerprint.getValue());
+                    }
+                }
+            }
+            try {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            unflushed = 0;
+        } catch (IOException ignored) {
+            System.out.printf("ATTENTION: COULD NOT SAVE PROGRESS FILE CHECKING WILL BE SLOWER NEXT TIME! (check path settings in .pom)%n");
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+}
@@ -0,0 +1,32 @@
+package be.catsandcoding.dozer.components;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps progress for the duration of the run only, used when no progress-file is configured.
+ */
+public class InMemoryProgressStore implements ProgressStore {
+    private final Map<String, FileFingerprint> processed = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<FileFingerprint> get(String pathToXmlResource) {
+        return Optional.ofNullable(processed.get(pathToXmlResource));
+    }
+
+    @Override
+    public void put(String pathToXmlResource, FileFingerprint fingerprint) {
+        processed.put(pathToXmlResource, fingerprint);
+    }
+
+    @Override
+    public void flush() {
+        // nothing to persist
+    }
+
+    @Override
+    public void close() {
+        // nothing to release
+    }
+}
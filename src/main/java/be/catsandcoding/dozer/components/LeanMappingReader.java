@@ -0,0 +1,184 @@
+package be.catsandcoding.dozer.components;
+
+import be.catsandcoding.dozer.generated.Class;
+import be.catsandcoding.dozer.generated.Configuration;
+import be.catsandcoding.dozer.generated.ConverterType;
+import be.catsandcoding.dozer.generated.CustomConverters;
+import be.catsandcoding.dozer.generated.Field;
+import be.catsandcoding.dozer.generated.FieldDefinition;
+import be.catsandcoding.dozer.generated.FieldExclude;
+import be.catsandcoding.dozer.generated.Mapping;
+import be.catsandcoding.dozer.generated.Mappings;
+import be.catsandcoding.dozer.generated.Type;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.UnmarshalException;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Reads a mapping file with StAX without going through JAXB, filling in only what the verification and the cost
+ * analysis look at: class-a, class-b and wildcard of every mapping, the a, b, type and custom-converter of its fields,
+ * the a, b and type of its field-excludes and the wildcard and custom converters of the configuration. Everything
+ * else is skipped.
+ */
+class LeanMappingReader implements MappingReader {
+
+    /**
+     * @return all mappings and the configuration of the file, as far as they are needed for the verification
+     */
+    Mappings read(InputStream in) throws JAXBException {
+        Mappings mappings = new Mappings();
+        read(in, mappings::setConfiguration, mappings.getMapping()::add);
+        return mappings;
+    }
+
+    @Override
+    public void read(InputStream in, Consumer<Configuration> configurationHandler, Consumer<Mapping> mappingHandler) throws JAXBException {
+        XMLStreamReader reader = null;
+        try {
+            reader = StreamingMappingReader.openMappings(in);
+            while(nextChild(reader)){
+                if("mapping".equals(reader.getLocalName())){
+                    mappingHandler.accept(readMapping(reader));
+                } else if("configuration".equals(reader.getLocalName())){
+                    configurationHandler.accept(readConfiguration(reader));
+                } else {
+                    skipElement(reader);
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new UnmarshalException(e);
+        } finally {
+            StreamingMappingReader.close(reader);
+        }
+    }
+
+    private static Mapping readMapping(XMLStreamReader reader) throws XMLStreamException {
+        Mapping mapping = new Mapping();
+        mapping.setWildcard(readBoolean(reader.getAttributeValue(null, "wildcard")));
+        while(nextChild(reader)){
+            switch (reader.getLocalName()){
+                case "class-a": mapping.setClassA(readClass(reader)); break;
+                case "class-b": mapping.setClassB(readClass(reader)); break;
+                case "field": mapping.getFieldOrFieldExclude().add(readField(reader)); break;
+                case "field-exclude": mapping.getFieldOrFieldExclude().add(readFieldExclude(reader)); break;
+                default: skipElement(reader);
+            }
+        }
+        return mapping;
+    }
+
+    private static Field readField(XMLStreamReader reader) throws XMLStreamException {
+        Field field = new Field();
+        field.setCustomConverter(reader.getAttributeValue(null, "custom-converter"));
+        field.setCustomConverterId(reader.getAttributeValue(null, "custom-converter-id"));
+        field.setType(readType(reader.getAttributeValue(null, "type")));
+        while(nextChild(reader)){
+            switch (reader.getLocalName()){
+                case "a": field.setA(readFieldDefinition(reader)); break;
+                case "b": field.setB(readFieldDefinition(reader)); break;
+                default: skipElement(reader);
+            }
+        }
+        return field;
+    }
+
+    private static FieldExclude readFieldExclude(XMLStreamReader reader) throws XMLStreamException {
+        FieldExclude fieldExclude = new FieldExclude();
+        fieldExclude.setType(readType(reader.getAttributeValue(null, "type")));
+        while(nextChild(reader)){
+            switch (reader.getLocalName()){
+                case "a": fieldExclude.setA(readFieldDefinition(reader)); break;
+                case "b": fieldExclude.setB(readFieldDefinition(reader)); break;
+                default: skipElement(reader);
+            }
+        }
+        return fieldExclude;
+    }
+
+    private static Configuration readConfiguration(XMLStreamReader reader) throws XMLStreamException {
+        Configuration configuration = new Configuration();
+        while(nextChild(reader)){
+            if("custom-converters".equals(reader.getLocalName())){
+                CustomConverters customConverters = new CustomConverters();
+                while(nextChild(reader)){
+                    if("converter".equals(reader.getLocalName())){
+                        customConverters.getConverter().add(readConverter(reader));
+                    } else {
+                        skipElement(reader);
+                    }
+                }
+                configuration.setCustomConverters(customConverters);
+            } else if("wildcard".equals(reader.getLocalName())){
+                configuration.setWildcard(readBoolean(reader.getElementText()));
+            } else {
+                skipElement(reader);
+            }
+        }
+        return configuration;
+    }
+
+    private static ConverterType readConverter(XMLStreamReader reader) throws XMLStreamException {
+        ConverterType converter = new ConverterType();
+        converter.setType(reader.getAttributeValue(null, "type"));
+        while(nextChild(reader)){
+            switch (reader.getLocalName()){
+                case "class-a": converter.setClassA(readClass(reader)); break;
+                case "class-b": converter.setClassB(readClass(reader)); break;
+                default: skipElement(reader);
+            }
+        }
+        return converter;
+    }
+
+    private static Class readClass(XMLStreamReader reader) throws XMLStreamException {
+        Class clazz = new Class();
+        clazz.setContent(reader.getElementText());
+        return clazz;
+    }
+
+    private static FieldDefinition readFieldDefinition(XMLStreamReader reader) throws XMLStreamException {
+        FieldDefinition fieldDefinition = new FieldDefinition();
+        fieldDefinition.setIsAccessible(readBoolean(reader.getAttributeValue(null, "is-accessible")));
+        fieldDefinition.setGetMethod(reader.getAttributeValue(null, "get-method"));
+        fieldDefinition.setSetMethod(reader.getAttributeValue(null, "set-method"));
+        fieldDefinition.setContent(reader.getElementText());
+        return fieldDefinition;
+    }
+
+    // like JAXB, an unknown value is left out instead of failing the file
+    private static Type readType(String value){
+        if(value == null) { return null; }
+        try {
+            return Type.fromValue(value.trim());
+        } catch (IllegalArgumentException e){
+            return null;
+        }
+    }
+
+    private static Boolean readBoolean(String value){
+        return value == null ? null : Boolean.valueOf("true".equals(value.trim()) || "1".equals(value.trim()));
+    }
+
+    // moves to the next child element of the current element, false once its end tag is reached
+    private static boolean nextChild(XMLStreamReader reader) throws XMLStreamException {
+        while(reader.hasNext()){
+            int event = reader.next();
+            if(event == XMLStreamConstants.START_ELEMENT) { return true; }
+            if(event == XMLStreamConstants.END_ELEMENT) { return false; }
+        }
+        return false;
+    }
+
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        for(int depth = 1; depth > 0; ){
+            int event = reader.next();
+            if(event == XMLStreamConstants.START_ELEMENT) { depth++; }
+            if(event == XMLStreamConstants.END_ELEMENT) { depth--; }
+        }
+    }
+}
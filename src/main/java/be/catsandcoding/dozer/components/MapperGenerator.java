@@ -0,0 +1,644 @@
+package be.catsandcoding.dozer.components;
+
+import be.catsandcoding.dozer.generated.Configuration;
+import be.catsandcoding.dozer.generated.ConverterType;
+import be.catsandcoding.dozer.generated.Field;
+import be.catsandcoding.dozer.generated.FieldDefinition;
+import be.catsandcoding.dozer.generated.FieldExclude;
+import be.catsandcoding.dozer.generated.Mapping;
+import be.catsandcoding.dozer.generated.Type;
+
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.lang.Class;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Turns verified mappings into plain Java mappers: a class per mapping with direct getter, setter and converter
+ * calls, so hot mappings can do without DozerBeanMapper and its reflection.
+ * <p>
+ * A mapper is only generated when it copies exactly what Dozer would. Mappings that rely on anything Dozer does by
+ * itself, converting between types, mapping nested beans and collections into new instances, hints, map-backed
+ * properties and the like, are reported and left to Dozer. Of the custom converters of the configuration only the
+ * ones in the same mapping file are known, copies they might apply to are left to Dozer as well.
+ */
+public class MapperGenerator {
+    private static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<>(Arrays.asList(
+            String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class,
+            Float.class, Double.class, BigDecimal.class, BigInteger.class, UUID.class));
+    private static final Map<Class<?>, Class<?>> WRAPPERS = new LinkedHashMap<>();
+    static {
+        WRAPPERS.put(boolean.class, Boolean.class);
+        WRAPPERS.put(char.class, Character.class);
+        WRAPPERS.put(byte.class, Byte.class);
+        WRAPPERS.put(short.class, Short.class);
+        WRAPPERS.put(int.class, Integer.class);
+        WRAPPERS.put(long.class, Long.class);
+        WRAPPERS.put(float.class, Float.class);
+        WRAPPERS.put(double.class, Double.class);
+    }
+
+    private final boolean allowCaseInsensitiveFields;
+    private final Map<String, String> sources = new TreeMap<>();
+    // the mapping file every mapper is generated from, and the mapping files seen in this run
+    private final Map<String, String> mappingFiles = new TreeMap<>();
+    private final Set<String> seenMappingFiles = new HashSet<>();
+    // why mappings are left to Dozer, by mapping file
+    private final Map<String, List<String>> notGenerated = new TreeMap<>();
+
+    public MapperGenerator(boolean allowCaseInsensitiveFields){
+        this.allowCaseInsensitiveFields = allowCaseInsensitiveFields;
+    }
+
+    /**
+     * Marks the mapping file as seen in this run, whether its mappings are verified or skipped as unchanged: the
+     * mappers generated from it by an earlier run and not generated again are stale. What was generated from it
+     * earlier in this run, before it changed and is verified again, is dropped.
+     */
+    public void startFile(String pathToXmlResource){
+        synchronized (sources){
+            seenMappingFiles.add(pathToXmlResource);
+            mappingFiles.entrySet().removeIf(entry -> {
+                if(!entry.getValue().equals(pathToXmlResource)) { return false; }
+                sources.remove(entry.getKey());
+                return true;
+            });
+        }
+        synchronized (notGenerated){
+            notGenerated.remove(pathToXmlResource);
+        }
+    }
+
+    /**
+     * Generates the mapper of a verified mapping, or tells why it is left to Dozer.
+     * @param configuration the configuration of the mapping file, if any
+     */
+    public void generate(Mapping mapping, Configuration configuration, String pathToXmlResource, CustomClassLoader customClassLoader){
+        Optional<Class<?>> classA = load(customClassLoader, mapping.getClassA() == null ? null : mapping.getClassA().getContent());
+        Optional<Class<?>> classB = load(customClassLoader, mapping.getClassB() == null ? null : mapping.getClassB().getContent());
+        if(!classA.isPresent() || !classB.isPresent()) { return; }
+
+        try {
+            String mapperName = getMapperName(classA.get(), classB.get());
+            String source = new MapperSource(mapping, configuration, classA.get(), classB.get(), mapperName, customClassLoader).generate();
+            synchronized (sources){
+                String existing = sources.putIfAbsent(mapperName, source);
+                if(existing != null && !existing.equals(source)){
+                    throw new NotGeneratable(String.format("%s is generated for another mapping already", mapperName));
+                }
+                mappingFiles.putIfAbsent(mapperName, pathToXmlResource);
+            }
+        } catch (NotGeneratable e) {
+            synchronized (notGenerated){
+                notGenerated.computeIfAbsent(pathToXmlResource, path -> new ArrayList<>()).add(String.format("%s to %s in %s: %s",
+                        classA.get().getName(), classB.get().getName(), pathToXmlResource, e.getMessage()));
+            }
+        }
+    }
+
+    private static Optional<Class<?>> load(CustomClassLoader customClassLoader, String className){
+        return className == null ? Optional.empty() : customClassLoader.loadClass(className.trim());
+    }
+
+    /**
+     * @return the source of every generated mapper by its fully qualified class name
+     */
+    public Map<String, String> getSources(){
+        synchronized (sources){
+            return Collections.unmodifiableMap(new TreeMap<>(sources));
+        }
+    }
+
+    /**
+     * @return per mapping that is left to Dozer, which one and why
+     */
+    public List<String> getNotGenerated(){
+        synchronized (notGenerated){
+            List<String> sorted = new ArrayList<>();
+            notGenerated.values().forEach(sorted::addAll);
+            sorted.sort(null);
+            return sorted;
+        }
+    }
+
+    /**
+     * Writes every mapper below the directory, in the directory of its package. Unchanged sources are not
+     * rewritten, so incremental builds do not compile them again.
+     * <p>
+     * The manifest lists every mapper with the mapping file it is generated from. The mappers an earlier run listed
+     * are removed when their mapping file was seen in this run without generating them again, or when it no longer
+     * exists; the ones of mapping files this run did not see are kept.
+     * @return the number of mappers written or removed
+     */
+    public int writeSources(Path directory, Path manifest) throws IOException {
+        Map<String, String> generated = getSources();
+        Map<String, String> listed;
+        Set<String> seen;
+        synchronized (sources){
+            listed = new TreeMap<>(mappingFiles);
+            seen = new HashSet<>(seenMappingFiles);
+        }
+
+        int changed = 0;
+        for(Map.Entry<String, String> source: generated.entrySet()){
+            Path file = getSourceFile(directory, source.getKey());
+            byte[] content = source.getValue().getBytes(StandardCharsets.UTF_8);
+            if(Files.exists(file) && Arrays.equals(Files.readAllBytes(file), content)) { continue; }
+            Files.createDirectories(file.getParent());
+            Files.write(file, content);
+            changed++;
+        }
+        for(Map.Entry<String, String> previous: readManifest(manifest).entrySet()){
+            if(generated.containsKey(previous.getKey())) { continue; }
+            if(seen.contains(previous.getValue()) || !exists(previous.getValue())){
+                if(Files.deleteIfExists(getSourceFile(directory, previous.getKey()))) { changed++; }
+            } else {
+                listed.put(previous.getKey(), previous.getValue());
+            }
+        }
+
+        List<String> lines = new ArrayList<>();
+        for(Map.Entry<String, String> entry: listed.entrySet()){
+            lines.add(entry.getKey() + '\t' + entry.getValue());
+        }
+        Files.createDirectories(manifest.toAbsolutePath().getParent());
+        Files.write(manifest, lines, StandardCharsets.UTF_8);
+        return changed;
+    }
+
+    private static Path getSourceFile(Path directory, String mapperName){
+        return directory.resolve(mapperName.replace('.', '/') + ".java");
+    }
+
+    private static Map<String, String> readManifest(Path manifest) throws IOException {
+        Map<String, String> listed = new TreeMap<>();
+        if(!Files.isRegularFile(manifest)) { return listed; }
+        for(String line: Files.readAllLines(manifest, StandardCharsets.UTF_8)){
+            int tab = line.indexOf('\t');
+            if(tab > 0){
+                listed.put(line.substring(0, tab), line.substring(tab + 1));
+            }
+        }
+        return listed;
+    }
+
+    // only mapping files on disk can be told to be gone, classpath resources are assumed to be there still
+    private static boolean exists(String pathToXmlResource){
+        if(!pathToXmlResource.startsWith("file:")) { return true; }
+        try {
+            return Files.exists(Paths.get(new URI(pathToXmlResource)));
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return true;
+        }
+    }
+
+    private static String getMapperName(Class<?> classA, Class<?> classB) throws NotGeneratable {
+        checkAccessible(classA);
+        checkAccessible(classB);
+        String packageName = classA.getPackage() == null ? "" : classA.getPackage().getName();
+        String simpleName = classA.getSimpleName() + "To" + classB.getSimpleName() + "Mapper";
+        return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+    }
+
+    private static void checkAccessible(Class<?> clazz) throws NotGeneratable {
+        for(Class<?> current = clazz; current != null; current = current.getDeclaringClass()){
+            if(!Modifier.isPublic(current.getModifiers()) || current.getCanonicalName() == null){
+                throw new NotGeneratable(String.format("%s is not public", clazz.getName()));
+            }
+        }
+    }
+
+    private static Class<?> boxed(Class<?> type){
+        return type.isPrimitive() ? WRAPPERS.get(type) : type;
+    }
+
+    private static boolean isImmutable(Class<?> type){
+        return type.isPrimitive() || type.isEnum() || IMMUTABLE_TYPES.contains(type)
+                || (type.getPackage() != null && "java.time".equals(type.getPackage().getName()));
+    }
+
+    private static String literal(String value){
+        StringBuilder literal = new StringBuilder("\"");
+        for(char c: value.toCharArray()){
+            switch (c){
+                case '"': literal.append("\\\""); break;
+                case '\\': literal.append("\\\\"); break;
+                case '\n': literal.append("\\n"); break;
+                case '\r': literal.append("\\r"); break;
+                case '\t': literal.append("\\t"); break;
+                default:
+                    if(c < 0x20 || c > 0x7e){
+                        literal.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        literal.append(c);
+                    }
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    /**
+     * Builds the source of one mapper, failing as soon as something turns out to be left to Dozer.
+     */
+    private final class MapperSource {
+        private final Mapping mapping;
+        private final Configuration configuration;
+        private final Class<?> classA;
+        private final Class<?> classB;
+        private final String mapperName;
+        private final CustomClassLoader customClassLoader;
+        // the type of each converter and its parameter, if any, by the name of the field holding it
+        private final Map<String, String> converters = new LinkedHashMap<>();
+        private final Map<String, String> converterParameters = new LinkedHashMap<>();
+
+        private MapperSource(Mapping mapping, Configuration configuration, Class<?> classA, Class<?> classB,
+                             String mapperName, CustomClassLoader customClassLoader){
+            this.mapping = mapping;
+            this.configuration = configuration;
+            this.classA = classA;
+            this.classB = classB;
+            this.mapperName = mapperName;
+            this.customClassLoader = customClassLoader;
+        }
+
+        private String generate() throws NotGeneratable {
+            checkMapping();
+            boolean bidirectional = !Type.ONE_WAY.equals(mapping.getType());
+            String map = generateMethods("map", classA, classB, true);
+            String mapReverse = bidirectional ? generateMethods("mapReverse", classB, classA, false) : "";
+
+            int lastDot = mapperName.lastIndexOf('.');
+            StringBuilder source = new StringBuilder();
+            if(lastDot > 0){
+                source.append("package ").append(mapperName, 0, lastDot).append(";\n\n");
+            }
+            source.append("/**\n")
+                    .append(" * Maps ").append(classA.getCanonicalName()).append(" to ").append(classB.getCanonicalName())
+                    .append(bidirectional ? " and back" : "").append(" like its Dozer mapping, without reflection.\n")
+                    .append(" * Generated by DozerMappingVerification from the verified mapping files, do not edit.\n")
+                    .append(" */\n")
+                    .append("public final class ").append(mapperName.substring(lastDot + 1)).append(" {\n");
+            for(Map.Entry<String, String> converter: converters.entrySet()){
+                source.append("    private final ").append(converter.getValue()).append(' ').append(converter.getKey())
+                        .append(" = new ").append(converter.getValue()).append("();\n");
+            }
+            if(!converters.isEmpty()){
+                source.append('\n');
+            }
+            if(!converterParameters.isEmpty()){
+                source.append("    public ").append(mapperName.substring(lastDot + 1)).append("() {\n");
+                for(Map.Entry<String, String> parameter: converterParameters.entrySet()){
+                    source.append("        ").append(parameter.getKey()).append(".setParameter(")
+                            .append(literal(parameter.getValue())).append(");\n");
+                }
+                source.append("    }\n\n");
+            }
+            source.append(map).append(mapReverse);
+            // every method is followed by an empty line, the last one by the end of the class
+            source.setLength(source.length() - 1);
+            return source.append("}\n").toString();
+        }
+
+        private void checkMapping() throws NotGeneratable {
+            for(be.catsandcoding.dozer.generated.Class clazz: Arrays.asList(mapping.getClassA(), mapping.getClassB())){
+                if(clazz.getBeanFactory() != null || clazz.getFactoryBeanId() != null || clazz.getCreateMethod() != null
+                        || clazz.getMapGetMethod() != null || clazz.getMapSetMethod() != null || clazz.isMapNull() != null
+                        || clazz.isMapEmptyString() != null || clazz.isIsAccessible() != null){
+                    throw new NotGeneratable("the classes have attributes that are left to Dozer");
+                }
+            }
+            if(mapping.getMapId() != null || mapping.getBeanFactory() != null || mapping.getDateFormat() != null
+                    || mapping.getRelationshipType() != null || Boolean.TRUE.equals(mapping.isTrimStrings())
+                    || Boolean.FALSE.equals(mapping.isMapNull()) || Boolean.FALSE.equals(mapping.isMapEmptyString())){
+                throw new NotGeneratable("the mapping has attributes that are left to Dozer");
+            }
+            if(configuration != null && (Boolean.TRUE.equals(configuration.isTrimStrings())
+                    || Boolean.FALSE.equals(configuration.isMapNull()) || Boolean.FALSE.equals(configuration.isMapEmptyString())
+                    || configuration.getCopyByReferences() != null)){
+                throw new NotGeneratable("the configuration has settings that are left to Dozer");
+            }
+        }
+
+        private boolean isWildcard(){
+            if(mapping.isWildcard() != null) { return mapping.isWildcard(); }
+            return configuration == null || configuration.isWildcard() == null || configuration.isWildcard();
+        }
+
+        private String generateMethods(String name, Class<?> from, Class<?> to, boolean forward) throws NotGeneratable {
+            StringBuilder body = new StringBuilder();
+            int[] locals = {0};
+            Set<String> explicitFrom = new HashSet<>();
+            Set<String> explicitTo = new HashSet<>();
+            for(Object fieldOrFieldExclude: mapping.getFieldOrFieldExclude()){
+                if(fieldOrFieldExclude instanceof FieldExclude){
+                    FieldExclude exclude = (FieldExclude) fieldOrFieldExclude;
+                    addFirstLevel(explicitFrom, forward ? exclude.getA() : exclude.getB());
+                    addFirstLevel(explicitTo, forward ? exclude.getB() : exclude.getA());
+                    continue;
+                }
+                if(!(fieldOrFieldExclude instanceof Field)) { continue; }
+
+                Field field = (Field) fieldOrFieldExclude;
+                FieldDefinition fromDefinition = forward ? field.getA() : field.getB();
+                FieldDefinition toDefinition = forward ? field.getB() : field.getA();
+                addFirstLevel(explicitFrom, fromDefinition);
+                addFirstLevel(explicitTo, toDefinition);
+                if(!forward && Type.ONE_WAY.equals(field.getType())) { continue; }
+
+                checkField(field, fromDefinition, toDefinition);
+                body.append(copy(from, to, fromDefinition, toDefinition, field, forward, locals));
+            }
+            if(isWildcard()){
+                Map<String, PropertyDescriptor> writable = new TreeMap<>();
+                for(PropertyDescriptor property: MappingCostAnalysis.getProperties(to)){
+                    if(property.getWriteMethod() != null && !explicitTo.contains(property.getName())){
+                        writable.put(property.getName(), property);
+                    }
+                }
+                List<PropertyDescriptor> readable = new ArrayList<>(MappingCostAnalysis.getProperties(from));
+                readable.sort(Comparator.comparing(PropertyDescriptor::getName));
+                for(PropertyDescriptor property: readable){
+                    PropertyDescriptor target = writable.get(property.getName());
+                    if(property.getReadMethod() == null || target == null || explicitFrom.contains(property.getName())) { continue; }
+                    body.append(directCopy("source." + property.getReadMethod().getName() + "()",
+                            property.getReadMethod().getReturnType(), target.getWriteMethod(), false, property.getName()));
+                }
+            }
+
+            String fromType = from.getCanonicalName();
+            String toType = to.getCanonicalName();
+            StringBuilder methods = new StringBuilder()
+                    .append("    /**\n")
+                    .append("     * Copies the mapped properties of the source onto the destination.\n")
+                    .append("     * @return the destination\n")
+                    .append("     */\n")
+                    .append("    public ").append(toType).append(' ').append(name).append('(').append(fromType)
+                    .append(" source, ").append(toType).append(" destination) {\n")
+                    .append("        if (source == null) {\n")
+                    .append("            return destination;\n")
+                    .append("        }\n")
+                    .append(body)
+                    .append("        return destination;\n")
+                    .append("    }\n\n");
+            if(hasPublicNoArgumentConstructor(to)){
+                methods.append("    /**\n")
+                        .append("     * @return a new destination with the mapped properties of the source, null for a null source\n")
+                        .append("     */\n")
+                        .append("    public ").append(toType).append(' ').append(name).append('(').append(fromType).append(" source) {\n")
+                        .append("        return source == null ? null : ").append(name).append("(source, new ").append(toType).append("());\n")
+                        .append("    }\n\n");
+            }
+            return methods.toString();
+        }
+
+        private void checkField(Field field, FieldDefinition fromDefinition, FieldDefinition toDefinition) throws NotGeneratable {
+            if(field.getAHint() != null || field.getBHint() != null || field.getADeepIndexHint() != null
+                    || field.getBDeepIndexHint() != null || field.getRelationshipType() != null
+                    || field.isRemoveOrphans() != null || field.getMapId() != null || field.getCustomConverterId() != null){
+                throw new NotGeneratable(String.format("field %s has attributes that are left to Dozer", describe(fromDefinition)));
+            }
+            for(FieldDefinition definition: Arrays.asList(fromDefinition, toDefinition)){
+                if(definition == null || definition.getContent() == null){
+                    throw new NotGeneratable("a field is missing its a or b");
+                }
+                if(definition.getDateFormat() != null || definition.getType() != null || definition.getKey() != null
+                        || definition.getMapGetMethod() != null || definition.getMapSetMethod() != null
+                        || definition.getCreateMethod() != null || Boolean.TRUE.equals(definition.isIsAccessible())
+                        || definition.getContent().contains("[")){
+                    throw new NotGeneratable(String.format("field %s has attributes that are left to Dozer", describe(definition)));
+                }
+            }
+        }
+
+        private String copy(Class<?> from, Class<?> to, FieldDefinition fromDefinition, FieldDefinition toDefinition,
+                            Field field, boolean forward, int[] locals) throws NotGeneratable {
+            StringBuilder statements = new StringBuilder();
+            String[] fromPath = fromDefinition.getContent().trim().split("\\.");
+            String[] toPath = toDefinition.getContent().trim().split("\\.");
+            if(toPath.length > 1){
+                throw new NotGeneratable(String.format("field %s is nested, Dozer creates the beans on its path", describe(toDefinition)));
+            }
+
+            if(fromPath.length > 1 && fromDefinition.getGetMethod() != null){
+                throw new NotGeneratable(String.format("field %s is nested and has a get-method", describe(fromDefinition)));
+            }
+
+            // read the value, guarding every level of a nested path against null
+            String value = "source";
+            Class<?> valueType = from;
+            for(int i = 0; i < fromPath.length; i++){
+                Method getter = fromDefinition.getGetMethod() != null ?
+                        getPublicMethod(valueType, fromDefinition.getGetMethod().trim(), 0) : getGetter(valueType, fromPath[i].trim());
+                String call = value + "." + getter.getName() + "()";
+                valueType = getter.getReturnType();
+                if(fromPath.length == 1){
+                    value = call;
+                    continue;
+                }
+                if(valueType.isPrimitive()){
+                    throw new NotGeneratable(String.format("field %s is nested and its value is a primitive", describe(fromDefinition)));
+                }
+                String local = "value" + locals[0]++;
+                statements.append("        ").append(valueType.getCanonicalName()).append(' ').append(local).append(" = ")
+                        .append(i == 0 ? call : value + " == null ? null : " + call).append(";\n");
+                value = local;
+            }
+
+            Method setter = toDefinition.getSetMethod() != null ?
+                    getPublicMethod(to, toDefinition.getSetMethod().trim(), 1) : getSetter(to, toPath[0].trim());
+            if(field.getCustomConverter() == null){
+                return statements.append(directCopy(value, valueType, setter,
+                        Boolean.TRUE.equals(field.isCopyByReference()), toPath[0].trim())).toString();
+            }
+
+            // the converter gets the current value of the destination as well, when it can be read
+            String converterField = getConverter(field);
+            Class<?> targetType = setter.getParameterTypes()[0];
+            Method converterMethod = getConverterMethod(field, forward ? "convertTo" : "convertFrom", valueType, targetType);
+            Optional<Method> current = findGetter(to, toPath[0].trim());
+            String currentValue = current.isPresent() && !current.get().getReturnType().isPrimitive()
+                    && converterMethod.getParameterTypes()[1].isAssignableFrom(current.get().getReturnType()) ?
+                    "destination." + current.get().getName() + "()" :
+                    "(" + converterMethod.getParameterTypes()[1].getCanonicalName() + ") null";
+            return statements.append("        destination.").append(setter.getName()).append('(').append(converterField)
+                    .append('.').append(converterMethod.getName()).append('(').append(value).append(", ")
+                    .append(currentValue).append("));\n").toString();
+        }
+
+        private String directCopy(String value, Class<?> valueType, Method setter, boolean copyByReference, String name) throws NotGeneratable {
+            Class<?> targetType = setter.getParameterTypes()[0];
+            if(!copyByReference && !isImmutable(valueType)){
+                throw new NotGeneratable(String.format("property %s of type %s is mapped into a new instance by Dozer",
+                        name, valueType.getName()));
+            }
+            boolean assignable = targetType.isPrimitive() ? targetType.equals(valueType) : targetType.isAssignableFrom(boxed(valueType));
+            if(!assignable){
+                throw new NotGeneratable(String.format("property %s is converted from %s to %s by Dozer", name,
+                        valueType.getName(), targetType.getName()));
+            }
+            if(isConvertedByConfiguration(valueType, targetType)){
+                throw new NotGeneratable(String.format("property %s may be converted by a converter of the configuration", name));
+            }
+            return "        destination." + setter.getName() + "(" + value + ");\n";
+        }
+
+        private boolean isConvertedByConfiguration(Class<?> valueType, Class<?> targetType){
+            if(configuration == null || configuration.getCustomConverters() == null) { return false; }
+            for(ConverterType converter: configuration.getCustomConverters().getConverter()){
+                Optional<Class<?>> classA = load(customClassLoader, converter.getClassA() == null ? null : converter.getClassA().getContent());
+                Optional<Class<?>> classB = load(customClassLoader, converter.getClassB() == null ? null : converter.getClassB().getContent());
+                if(!classA.isPresent() || !classB.isPresent()) { return true; }
+                Class<?> value = boxed(valueType);
+                Class<?> target = boxed(targetType);
+                if((classA.get().isAssignableFrom(value) && classB.get().isAssignableFrom(target))
+                        || (classB.get().isAssignableFrom(value) && classA.get().isAssignableFrom(target))){
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private String getConverter(Field field) throws NotGeneratable {
+            Class<?> converter = load(customClassLoader, field.getCustomConverter())
+                    .orElseThrow(() -> new NotGeneratable(String.format("%s could not be loaded", field.getCustomConverter())));
+            checkAccessible(converter);
+            if(!hasPublicNoArgumentConstructor(converter)){
+                throw new NotGeneratable(String.format("%s has no public constructor without arguments", converter.getName()));
+            }
+            String parameter = field.getCustomConverterParam();
+            if(parameter != null && !hasPublicMethod(converter, "setParameter", String.class)){
+                throw new NotGeneratable(String.format("%s takes no parameter", converter.getName()));
+            }
+            // like Dozer, every converter with another parameter is another instance
+            for(Map.Entry<String, String> existing: converters.entrySet()){
+                if(existing.getValue().equals(converter.getCanonicalName())
+                        && Objects.equals(converterParameters.get(existing.getKey()), parameter)) {
+                    return existing.getKey();
+                }
+            }
+            String name = "converter" + converters.size();
+            converters.put(name, converter.getCanonicalName());
+            if(parameter != null){
+                converterParameters.put(name, parameter);
+            }
+            return name;
+        }
+
+        private boolean hasPublicMethod(Class<?> clazz, String name, Class<?>... parameterTypes){
+            try {
+                clazz.getMethod(name, parameterTypes);
+                return true;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+
+        private Method getConverterMethod(Field field, String name, Class<?> valueType, Class<?> targetType) throws NotGeneratable {
+            Class<?> converter = load(customClassLoader, field.getCustomConverter())
+                    .orElseThrow(() -> new NotGeneratable(String.format("%s could not be loaded", field.getCustomConverter())));
+            Method found = null;
+            for(Method method: converter.getMethods()){
+                if(!method.getName().equals(name) || method.isBridge() || method.getParameterCount() != 2) { continue; }
+                Class<?>[] parameters = method.getParameterTypes();
+                if(parameters[0].isAssignableFrom(boxed(valueType)) && parameters[1].isAssignableFrom(boxed(targetType))
+                        && (found == null || found.getParameterTypes()[0].isAssignableFrom(parameters[0]))){
+                    found = method;
+                }
+            }
+            if(found == null){
+                throw new NotGeneratable(String.format("%s has no %s for %s", converter.getName(), name, valueType.getName()));
+            }
+            boolean assignable = targetType.isPrimitive() ? targetType.equals(found.getReturnType()) :
+                    targetType.isAssignableFrom(boxed(found.getReturnType()));
+            if(!assignable){
+                throw new NotGeneratable(String.format("%s of %s does not return a %s", name, converter.getName(), targetType.getName()));
+            }
+            return found;
+        }
+
+        private Method getGetter(Class<?> clazz, String name) throws NotGeneratable {
+            return findGetter(clazz, name).orElseThrow(() -> new NotGeneratable(String.format(
+                    "%s has no getter for %s, Dozer reads the field itself", clazz.getName(), name)));
+        }
+
+        private Optional<Method> findGetter(Class<?> clazz, String name){
+            return findProperty(clazz, name).map(PropertyDescriptor::getReadMethod);
+        }
+
+        private Method getSetter(Class<?> clazz, String name) throws NotGeneratable {
+            return findProperty(clazz, name).map(PropertyDescriptor::getWriteMethod).orElseThrow(() -> new NotGeneratable(
+                    String.format("%s has no setter for %s, Dozer writes the field itself", clazz.getName(), name)));
+        }
+
+        private Optional<PropertyDescriptor> findProperty(Class<?> clazz, String name){
+            List<PropertyDescriptor> properties = MappingCostAnalysis.getProperties(clazz);
+            Optional<PropertyDescriptor> exact = properties.stream().filter(property -> property.getName().equals(name)).findFirst();
+            if(exact.isPresent() || !allowCaseInsensitiveFields) { return exact; }
+            return properties.stream().filter(property -> property.getName().equalsIgnoreCase(name)).findFirst();
+        }
+
+        private Method getPublicMethod(Class<?> clazz, String name, int parameterCount) throws NotGeneratable {
+            List<Method> candidates = new ArrayList<>();
+            for(Method method: clazz.getMethods()){
+                if(method.getName().equals(name) && method.getParameterCount() == parameterCount && !method.isBridge()){
+                    candidates.add(method);
+                }
+            }
+            if(candidates.size() != 1){
+                throw new NotGeneratable(String.format("%s has no single public method %s", clazz.getName(), name));
+            }
+            return candidates.get(0);
+        }
+    }
+
+    private static boolean hasPublicNoArgumentConstructor(Class<?> clazz){
+        if(Modifier.isAbstract(clazz.getModifiers()) || clazz.isInterface()
+                || (clazz.getDeclaringClass() != null && !Modifier.isStatic(clazz.getModifiers()))) { return false; }
+        for(Constructor<?> constructor: clazz.getConstructors()){
+            if(constructor.getParameterCount() == 0) { return true; }
+        }
+        return false;
+    }
+
+    private static void addFirstLevel(Set<String> names, FieldDefinition fieldDefinition){
+        if(fieldDefinition != null && fieldDefinition.getContent() != null){
+            names.add(fieldDefinition.getContent().trim().split("\\.")[0].trim());
+        }
+    }
+
+    private static String describe(FieldDefinition fieldDefinition){
+        return fieldDefinition == null ? null : Objects.toString(fieldDefinition.getContent()).trim();
+    }
+
+    /**
+     * Why a mapping cannot be generated.
+     */
+    private static final class NotGeneratable extends Exception {
+        private NotGeneratable(String message){
+            super(message);
+        }
+    }
+}
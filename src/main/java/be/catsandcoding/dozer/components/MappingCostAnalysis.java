@@ -0,0 +1,291 @@
+package be.catsandcoding.dozer.components;
+
+import be.catsandcoding.dozer.generated.Field;
+import be.catsandcoding.dozer.generated.FieldDefinition;
+import be.catsandcoding.dozer.generated.FieldExclude;
+import be.catsandcoding.dozer.generated.Mapping;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.Class;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Estimates what every mapping costs Dozer at runtime, each time it maps an object, and ranks the mappings so the
+ * expensive ones can be optimized first. The score counts the property copies Dozer does by reflection, weighed by
+ * what makes them dearer:
+ * <ul>
+ *     <li>every level of a dotted field path is another reflective read, null check and possibly instantiation;</li>
+ *     <li>a field without getter (class-a) or setter (class-b), or marked is-accessible, is read or written through
+ *     {@link java.lang.reflect.Field} access;</li>
+ *     <li>a custom converter is looked up, instantiated and called through its generic convert methods;</li>
+ *     <li>with wildcard on, which is the default, every same-named property of both beans is copied as well.</li>
+ * </ul>
+ * Mappings that verified with errors are analyzed as far as their classes and fields could be resolved.
+ */
+public class MappingCostAnalysis {
+    static final int FIELD_COST = 1;
+    static final int NESTING_COST = 2;
+    static final int REFLECTIVE_ACCESS_COST = 3;
+    static final int CONVERTER_COST = 5;
+    /** from this many levels a field path is reported as deep */
+    static final int DEEP_PATH_LEVELS = 3;
+    /** from this many properties matched by name a wildcard mapping is reported */
+    static final int LARGE_WILDCARD_PROPERTIES = 20;
+    /** from this many custom converters a mapping is reported */
+    static final int HEAVY_CONVERTER_USE = 3;
+
+    private final PropertyResolver propertyResolver;
+    private final boolean allowCaseInsensitiveFields;
+    private final List<MappingCost> costs = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * @param propertyResolver shared with the verification, so the fields it resolved are not resolved again
+     */
+    public MappingCostAnalysis(PropertyResolver propertyResolver, boolean allowCaseInsensitiveFields){
+        this.propertyResolver = propertyResolver;
+        this.allowCaseInsensitiveFields = allowCaseInsensitiveFields;
+    }
+
+    /**
+     * @param wildcardByDefault whether the mapping file configures wildcard mapping, as it applies to mappings that
+     *                          do not say
+     */
+    public void analyze(Mapping mapping, boolean wildcardByDefault, String pathToXmlResource, CustomClassLoader customClassLoader){
+        Optional<Class<?>> classA = load(customClassLoader, mapping.getClassA());
+        Optional<Class<?>> classB = load(customClassLoader, mapping.getClassB());
+        if(!classA.isPresent() || !classB.isPresent()) { return; }
+
+        MappingCost cost = new MappingCost(pathToXmlResource, classA.get().getName(), classB.get().getName());
+        int deepPaths = 0;
+        int reflectiveAccesses = 0;
+        int converters = 0;
+        int explicitFields = 0;
+        Set<String> explicitA = new HashSet<>();
+        Set<String> explicitB = new HashSet<>();
+        for(Object fieldOrFieldExclude: mapping.getFieldOrFieldExclude()){
+            if(fieldOrFieldExclude instanceof FieldExclude){
+                FieldExclude exclude = (FieldExclude) fieldOrFieldExclude;
+                addFirstLevel(explicitA, exclude.getA());
+                addFirstLevel(explicitB, exclude.getB());
+                continue;
+            }
+            if(!(fieldOrFieldExclude instanceof Field)) { continue; }
+
+            Field field = (Field) fieldOrFieldExclude;
+            addFirstLevel(explicitA, field.getA());
+            addFirstLevel(explicitB, field.getB());
+            explicitFields++;
+            cost.score += FIELD_COST;
+            int levels = Math.max(levels(field.getA()), levels(field.getB()));
+            cost.score += NESTING_COST * (levels - 1);
+            if(levels >= DEEP_PATH_LEVELS){
+                deepPaths++;
+            }
+            if(isReflectiveAccess(classA.get(), field.getA(), true)) { reflectiveAccesses++; }
+            if(isReflectiveAccess(classB.get(), field.getB(), false)) { reflectiveAccesses++; }
+            if(field.getCustomConverter() != null || field.getCustomConverterId() != null){
+                converters++;
+            }
+        }
+        cost.score += REFLECTIVE_ACCESS_COST * reflectiveAccesses + CONVERTER_COST * converters;
+        cost.fields = explicitFields;
+
+        if(deepPaths > 0){
+            cost.findings.put("deep-field-path", String.format("%d field(s) of %d or more levels", deepPaths, DEEP_PATH_LEVELS));
+        }
+        if(reflectiveAccesses > 0){
+            cost.findings.put("field-access-without-accessor", String.format("%d field(s) read or written without getter or setter", reflectiveAccesses));
+        }
+        if(converters >= HEAVY_CONVERTER_USE){
+            cost.findings.put("heavy-converter-use", String.format("%d custom converters", converters));
+        }
+        boolean wildcard = mapping.isWildcard() == null ? wildcardByDefault : mapping.isWildcard();
+        if(wildcard){
+            int implicit = countImplicitProperties(classA.get(), classB.get(), explicitA, explicitB);
+            cost.score += FIELD_COST * implicit;
+            cost.fields += implicit;
+            if(implicit >= LARGE_WILDCARD_PROPERTIES){
+                cost.findings.put("wildcard-on-large-bean", String.format("%d properties matched by name", implicit));
+            }
+        }
+        costs.add(cost);
+    }
+
+    /**
+     * Drops the analyzed mappings of a file, before it is analyzed again.
+     */
+    public void forget(String pathToXmlResource){
+        costs.removeIf(cost -> cost.getPathToXmlResource().equals(pathToXmlResource));
+    }
+
+    private static Optional<Class<?>> load(CustomClassLoader customClassLoader, be.catsandcoding.dozer.generated.Class clazz){
+        if(clazz == null || clazz.getContent() == null) { return Optional.empty(); }
+        return customClassLoader.loadClass(clazz.getContent().trim());
+    }
+
+    private static void addFirstLevel(Set<String> names, FieldDefinition fieldDefinition){
+        if(fieldDefinition != null && fieldDefinition.getContent() != null){
+            names.add(fieldDefinition.getContent().trim().split("\\.")[0].trim());
+        }
+    }
+
+    private static int levels(FieldDefinition fieldDefinition){
+        return fieldDefinition == null || fieldDefinition.getContent() == null ? 1 :
+                fieldDefinition.getContent().trim().split("\\.").length;
+    }
+
+    // the last level of the path decides, the levels before it are always read
+    private boolean isReflectiveAccess(Class<?> clazz, FieldDefinition fieldDefinition, boolean read){
+        if(fieldDefinition == null || fieldDefinition.getContent() == null) { return false; }
+        if(Boolean.TRUE.equals(fieldDefinition.isIsAccessible())) { return true; }
+        if(read ? fieldDefinition.getGetMethod() != null : fieldDefinition.getSetMethod() != null) { return false; }
+
+        PropertyResolver.Resolution resolution = propertyResolver.resolve(clazz, fieldDefinition.getContent(), allowCaseInsensitiveFields);
+        if(!resolution.getAccessor().isPresent()) { return false; }
+        List<Class<?>> visited = resolution.getVisitedClasses();
+        String[] items = fieldDefinition.getContent().trim().split("\\.");
+        String name = items[items.length - 1].trim();
+        return getProperties(visited.get(visited.size() - 1)).stream()
+                .filter(property -> property.getName().equals(name)
+                        || (allowCaseInsensitiveFields && property.getName().equalsIgnoreCase(name)))
+                .noneMatch(property -> (read ? property.getReadMethod() : property.getWriteMethod()) != null);
+    }
+
+    private static int countImplicitProperties(Class<?> classA, Class<?> classB, Set<String> explicitA, Set<String> explicitB){
+        Set<String> writable = new HashSet<>();
+        for(PropertyDescriptor property: getProperties(classB)){
+            if(property.getWriteMethod() != null && !explicitB.contains(property.getName())){
+                writable.add(property.getName());
+            }
+        }
+        int implicit = 0;
+        for(PropertyDescriptor property: getProperties(classA)){
+            if(property.getReadMethod() != null && !explicitA.contains(property.getName()) && writable.contains(property.getName())){
+                implicit++;
+            }
+        }
+        return implicit;
+    }
+
+    // the bean properties Dozer itself works with, the introspector caches them per class
+    static List<PropertyDescriptor> getProperties(Class<?> clazz){
+        try {
+            List<PropertyDescriptor> properties = new ArrayList<>();
+            for(PropertyDescriptor property: Introspector.getBeanInfo(clazz).getPropertyDescriptors()){
+                if(!"class".equals(property.getName())){
+                    properties.add(property);
+                }
+            }
+            return properties;
+        } catch (IntrospectionException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * @return the analyzed mappings, the most expensive first
+     */
+    public List<MappingCost> getRanking(){
+        List<MappingCost> ranking;
+        synchronized (costs) {
+            ranking = new ArrayList<>(costs);
+        }
+        ranking.sort(Comparator.comparingInt(MappingCost::getScore).reversed()
+                .thenComparing(MappingCost::getPathToXmlResource)
+                .thenComparing(MappingCost::getClassA)
+                .thenComparing(MappingCost::getClassB));
+        return ranking;
+    }
+
+    public void writeJson(Path report) throws IOException {
+        List<MappingCost> ranking = getRanking();
+        try(Writer out = new BufferedWriter(Files.newBufferedWriter(report, StandardCharsets.UTF_8))){
+            out.write("{\n");
+            out.write("  \"mappings\": [");
+            String separator = "\n";
+            int rank = 1;
+            for(MappingCost cost: ranking){
+                out.write(separator + "    {\"rank\": " + rank++
+                        + ", \"score\": " + cost.getScore()
+                        + ", \"path\": " + VerificationMetrics.json(cost.getPathToXmlResource())
+                        + ", \"classA\": " + VerificationMetrics.json(cost.getClassA())
+                        + ", \"classB\": " + VerificationMetrics.json(cost.getClassB())
+                        + ", \"fields\": " + cost.getFields()
+                        + ", \"findings\": {");
+                String findingSeparator = "";
+                for(Map.Entry<String, String> finding: cost.getFindings().entrySet()){
+                    out.write(findingSeparator + VerificationMetrics.json(finding.getKey()) + ": " + VerificationMetrics.json(finding.getValue()));
+                    findingSeparator = ", ";
+                }
+                out.write("}}");
+                separator = ",\n";
+            }
+            out.write(ranking.isEmpty() ? "]\n" : "\n  ]\n");
+            out.write("}\n");
+        }
+    }
+
+    /**
+     * The estimated cost of a single mapping, in property copies, and the hot-spot patterns found in it.
+     */
+    public static final class MappingCost {
+        private final String pathToXmlResource;
+        private final String classA;
+        private final String classB;
+        private final Map<String, String> findings = new LinkedHashMap<>();
+        private int score = 0;
+        private int fields = 0;
+
+        private MappingCost(String pathToXmlResource, String classA, String classB){
+            this.pathToXmlResource = pathToXmlResource;
+            this.classA = classA;
+            this.classB = classB;
+        }
+
+        public String getPathToXmlResource() {
+            return pathToXmlResource;
+        }
+
+        public String getClassA() {
+            return classA;
+        }
+
+        public String getClassB() {
+            return classB;
+        }
+
+        public int getScore() {
+            return score;
+        }
+
+        /**
+         * @return the number of properties copied, explicitly or by wildcard
+         */
+        public int getFields() {
+            return fields;
+        }
+
+        /**
+         * @return a description per hot-spot pattern found
+         */
+        public Map<String, String> getFindings() {
+            return Collections.unmodifiableMap(findings);
+        }
+    }
+}
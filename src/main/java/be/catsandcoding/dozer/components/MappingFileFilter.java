@@ -0,0 +1,60 @@
+package be.catsandcoding.dozer.components;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decides which files below a walked directory are mapping files to verify, and which directories are not worth
+ * entering at all. Patterns are globs relative to the walked directory, with / as separator. As in Ant, a leading
+ * {@code **}{@code /} also matches at the top level, and an exclude ending in {@code /**} prunes the directory
+ * itself. Without includes every .xml file is included.
+ */
+final class MappingFileFilter {
+    private static final String ANY_DIRECTORY = "**/";
+    private static final String ANYTHING_BELOW = "/**";
+
+    private final List<PathMatcher> includes = new ArrayList<>();
+    private final List<PathMatcher> excludes = new ArrayList<>();
+    private final List<PathMatcher> excludedDirectories = new ArrayList<>();
+
+    MappingFileFilter(List<String> includes, List<String> excludes){
+        for(String include: includes){
+            addMatchers(this.includes, include);
+        }
+        for(String exclude: excludes){
+            addMatchers(this.excludes, exclude);
+            addMatchers(this.excludedDirectories, exclude);
+            if(exclude.endsWith(ANYTHING_BELOW)){
+                addMatchers(this.excludedDirectories, exclude.substring(0, exclude.length() - ANYTHING_BELOW.length()));
+            }
+        }
+    }
+
+    private static void addMatchers(List<PathMatcher> matchers, String pattern){
+        matchers.add(FileSystems.getDefault().getPathMatcher("glob:" + pattern));
+        if(pattern.startsWith(ANY_DIRECTORY)){
+            matchers.add(FileSystems.getDefault().getPathMatcher("glob:" + pattern.substring(ANY_DIRECTORY.length())));
+        }
+    }
+
+    /**
+     * @param file relative to the walked directory
+     */
+    boolean isIncluded(Path file){
+        boolean included = includes.isEmpty() ?
+                file.getFileName() != null && file.getFileName().toString().toLowerCase().endsWith(".xml") :
+                includes.stream().anyMatch(matcher -> matcher.matches(file));
+        return included && excludes.stream().noneMatch(matcher -> matcher.matches(file));
+    }
+
+    /**
+     * @param directory relative to the walked directory
+     * @return whether nothing below the directory can be included
+     */
+    boolean isExcludedDirectory(Path directory){
+        return excludedDirectories.stream().anyMatch(matcher -> matcher.matches(directory));
+    }
+}
@@ -0,0 +1,16 @@
+package be.catsandcoding.dozer.components;
+
+import be.catsandcoding.dozer.generated.Configuration;
+import be.catsandcoding.dozer.generated.Mapping;
+
+import javax.xml.bind.JAXBException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Reads the top level elements of a mapping file, handing over every {@code <mapping>} and the
+ * {@code <configuration>} in document order.
+ */
+interface MappingReader {
+    void read(InputStream in, Consumer<Configuration> configurationHandler, Consumer<Mapping> mappingHandler) throws JAXBException;
+}
@@ -0,0 +1,167 @@
+package be.catsandcoding.dozer.components;
+
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * A mapping file, as named by DozerBeanMapper#getMappingFiles or found while walking a directory: a file: URI, a
+ * jar: URI pointing into an archive, or the name of a classpath resource, optionally prefixed with classpath:.
+ * <p>
+ * Entries of an archive are read in place. Their size and CRC, taken from the central directory of the archive,
+ * replace the checksum, so an unchanged entry is recognized without decompressing it.
+ */
+abstract class MappingResource {
+    private static final String CLASSPATH_PREFIX = "classpath:";
+
+    /**
+     * @param resourceLoader finds the mapping files that are given as classpath resources
+     */
+    static MappingResource resolve(String pathToXmlResource, ClassLoader resourceLoader) throws URISyntaxException, IOException {
+        URI uri = new URI(pathToXmlResource);
+        if(uri.getScheme() == null || pathToXmlResource.startsWith(CLASSPATH_PREFIX)){
+            String name = pathToXmlResource.startsWith(CLASSPATH_PREFIX) ?
+                    pathToXmlResource.substring(CLASSPATH_PREFIX.length()) : pathToXmlResource;
+            URL url = resourceLoader.getResource(name.startsWith("/") ? name.substring(1) : name);
+            if(url == null){
+                throw new FileNotFoundException(String.format("DozerMappingVerification: could not find %s on the classpath", name));
+            }
+            uri = url.toURI();
+        }
+        if("jar".equals(uri.getScheme())){
+            String archive = uri.getRawSchemeSpecificPart();
+            String entry = uri.getSchemeSpecificPart();
+            return new ArchiveEntry(Paths.get(new URI(archive.substring(0, archive.indexOf("!/")))),
+                    entry.substring(entry.indexOf("!/") + 2));
+        }
+        return new RegularFile(Paths.get(uri));
+    }
+
+    abstract boolean exists() throws IOException;
+
+    abstract long getSize() throws IOException;
+
+    abstract long getLastModified() throws IOException;
+
+    abstract String getChecksum() throws IOException, NoSuchAlgorithmException;
+
+    abstract InputStream open() throws IOException;
+
+    private static final class RegularFile extends MappingResource {
+        private final Path file;
+
+        private RegularFile(Path file){
+            this.file = file;
+        }
+
+        @Override
+        boolean exists() {
+            return Files.exists(file);
+        }
+
+        @Override
+        long getSize() throws IOException {
+            return Files.size(file);
+        }
+
+        @Override
+        long getLastModified() throws IOException {
+            return Files.getLastModifiedTime(file).toMillis();
+        }
+
+        @Override
+        String getChecksum() throws IOException, NoSuchAlgorithmException {
+            return Verifier.getChecksum(file);
+        }
+
+        @Override
+        InputStream open() throws IOException {
+            return Files.newInputStream(file);
+        }
+    }
+
+    private static final class ArchiveEntry extends MappingResource {
+        private final Path archive;
+        private final String name;
+        private ZipEntry entry;
+
+        private ArchiveEntry(Path archive, String name){
+            this.archive = archive;
+            this.name = name;
+        }
+
+        // the central directory is read once, the entry is only decompressed when opened
+        private ZipEntry getEntry() throws IOException {
+            if(entry == null){
+                try(ZipFile zip = new ZipFile(archive.toFile())) {
+                    entry = zip.getEntry(name);
+                }
+                if(entry == null){
+                    throw new FileNotFoundException(String.format("DozerMappingVerification: %s has no entry %s", archive, name));
+                }
+            }
+            return entry;
+        }
+
+        @Override
+        boolean exists() throws IOException {
+            if(!Files.exists(archive)) { return false; }
+            try {
+                getEntry();
+                return true;
+            } catch (FileNotFoundException e) {
+                return false;
+            }
+        }
+
+        @Override
+        long getSize() throws IOException {
+            return getEntry().getSize();
+        }
+
+        @Override
+        long getLastModified() throws IOException {
+            return getEntry().getTime();
+        }
+
+        @Override
+        String getChecksum() throws IOException {
+            // never equal to the MD5 of a regular file, so moving a mapping file into an archive verifies it again
+            return String.format("CRC32:%08X", getEntry().getCrc());
+        }
+
+        @Override
+        InputStream open() throws IOException {
+            ZipFile zip = new ZipFile(archive.toFile());
+            try {
+                ZipEntry current = zip.getEntry(name);
+                if(current == null){
+                    throw new FileNotFoundException(String.format("DozerMappingVerification: %s has no entry %s", archive, name));
+                }
+                return new FilterInputStream(zip.getInputStream(current)) {
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            zip.close();
+                        }
+                    }
+                };
+            } catch (IOException | RuntimeException e) {
+                zip.close();
+                throw e;
+            }
+        }
+    }
+}
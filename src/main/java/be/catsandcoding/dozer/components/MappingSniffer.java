@@ -0,0 +1,61 @@
+package be.catsandcoding.dozer.components;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Tells Dozer mapping files apart from the other XML files of a source tree, poms, Spring contexts, logging
+ * configuration, by the root element alone. Only the first {@value #SNIFF_SIZE} bytes are read; a file whose root
+ * element does not start within them is left to the full parse to decide on.
+ */
+final class MappingSniffer {
+    static final int SNIFF_SIZE = 4096;
+
+    // factories are not guaranteed to be thread-safe; DTDs are neither read nor fetched, only the root element counts
+    private static final ThreadLocal<XMLInputFactory> XML_INPUT_FACTORY = ThreadLocal.withInitial(() -> {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    });
+
+    private MappingSniffer(){}
+
+    /**
+     * @return false when the root element is known not to be {@code {http://dozer.sourceforge.net}mappings}
+     */
+    static boolean isMappingFile(Path file) throws IOException {
+        byte[] head = new byte[SNIFF_SIZE];
+        int length = 0;
+        try(InputStream in = Files.newInputStream(file)) {
+            for(int read; length < head.length && (read = in.read(head, length, head.length - length)) != -1; ){
+                length += read;
+            }
+        }
+
+        XMLStreamReader reader = null;
+        try {
+            reader = XML_INPUT_FACTORY.get().createXMLStreamReader(new ByteArrayInputStream(head, 0, length));
+            while(reader.hasNext()){
+                if(reader.next() == XMLStreamConstants.START_ELEMENT){
+                    return "mappings".equals(reader.getLocalName())
+                            && StreamingMappingReader.DOZER_NAMESPACE.equals(reader.getNamespaceURI());
+                }
+            }
+            // an empty document, nothing to verify
+            return false;
+        } catch (XMLStreamException e) {
+            // cut off before the root element, or not well-formed: the full parse reports it as before
+            return length == SNIFF_SIZE;
+        } finally {
+            StreamingMappingReader.close(reader);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package be.catsandcoding.dozer.components;
+
+import be.catsandcoding.dozer.generated.Configuration;
+import be.catsandcoding.dozer.generated.Mapping;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The checks done on the contents of a single mapping file.
+ */
+interface MappingVerification {
+    void verifyConfiguration(Configuration configuration, String pathToXmlResource);
+
+    void verifyMappings(List<Mapping> mappings, String pathToXmlResource);
+
+    /**
+     * @return the names of all classes the verifications done so far depended on
+     */
+    Set<String> getReferencedClasses();
+}
@@ -0,0 +1,231 @@
+package be.catsandcoding.dozer.components;
+
+import org.apache.tools.ant.BuildException;
+import org.xml.sax.SAXException;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URISyntaxException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps a {@link Verifier}, with its classpath scan and caches, alive and re-verifies mapping files as they change.
+ * <p>
+ * A changed mapping file is verified again on its own. A changed class file reloads the classes of the verifier,
+ * after which only the mapping files whose verification is no longer up to date, according to the fingerprints of
+ * the classes they refer to, are verified again. The reports of the verifier are written after every batch of
+ * changes.
+ */
+public class MappingWatcher implements AutoCloseable {
+    // editors and compilers write several files in a row, those are handled together
+    private static final long SETTLE_MILLIS = 100;
+
+    private final Verifier verifier;
+    private final Path mappingDirectory;
+    private final List<Path> classDirectories;
+    private final MappingFileFilter fileFilter;
+    private final PrintStream out;
+    private final WatchService watchService;
+
+    /**
+     * @param classDirectories the class-output directories to watch, jars are not watched
+     */
+    public MappingWatcher(Verifier verifier, Path mappingDirectory, List<Path> classDirectories, PrintStream out) throws IOException {
+        this.verifier = verifier;
+        this.mappingDirectory = mappingDirectory.toAbsolutePath().normalize();
+        this.classDirectories = classDirectories.stream().map(path -> path.toAbsolutePath().normalize())
+                .filter(Files::isDirectory).collect(Collectors.toList());
+        this.fileFilter = verifier.getFileFilter();
+        this.out = out;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        register(this.mappingDirectory);
+        for(Path classDirectory: this.classDirectories){
+            register(classDirectory);
+        }
+    }
+
+    private void register(Path directory) throws IOException {
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>(){
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if(isExcluded(dir)) { return FileVisitResult.SKIP_SUBTREE; }
+                dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_DELETE);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Handles changes until the watcher is closed or the thread is interrupted.
+     */
+    public void watch() {
+        out.printf("DozerMappingVerification: watching %s for changes.%n", mappingDirectory);
+        try {
+            while(!Thread.currentThread().isInterrupted()){
+                processChanges(watchService.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // closed, done watching
+        }
+    }
+
+    /**
+     * Handles the changes that come in within the given time.
+     * @return whether there were any
+     */
+    boolean processChanges(long timeout, TimeUnit unit) throws InterruptedException {
+        WatchKey key = watchService.poll(timeout, unit);
+        if(key == null) { return false; }
+        processChanges(key);
+        return true;
+    }
+
+    private void processChanges(WatchKey first) throws InterruptedException {
+        long start = System.nanoTime();
+        Set<Path> changedMappings = new TreeSet<>();
+        boolean classesChanged = false;
+        for(WatchKey key = first; key != null; key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)){
+            Path directory = (Path) key.watchable();
+            for(WatchEvent<?> event: key.pollEvents()){
+                if(event.kind() == StandardWatchEventKinds.OVERFLOW){
+                    // changes were lost, anything may have changed
+                    classesChanged = true;
+                    continue;
+                }
+                Path changed = directory.resolve((Path) event.context());
+                if(event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(changed)){
+                    registerCreated(changed, changedMappings);
+                }
+                if(isMapping(changed)){
+                    changedMappings.add(changed);
+                }
+                if(changed.getFileName().toString().endsWith(".class") && classDirectories.stream().anyMatch(changed::startsWith)){
+                    classesChanged = true;
+                }
+            }
+            key.reset();
+        }
+
+        int verified = 0;
+        if(classesChanged){
+            verifier.reloadClasses();
+            for(Path mapping: findMappings()){
+                if(changedMappings.contains(mapping) || !isUpToDate(mapping)){
+                    verified += verify(mapping);
+                }
+            }
+        } else {
+            for(Path mapping: changedMappings){
+                verified += verify(mapping);
+            }
+        }
+        // the reports are only written on close otherwise, which a watcher only reaches when it stops
+        verifier.writeReports();
+        out.printf("DozerMappingVerification: verified %d changed file(s) in %d ms.%n", verified,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    // files created along with a new directory may predate its registration
+    private void registerCreated(Path directory, Set<Path> changedMappings){
+        try {
+            register(directory);
+            if(directory.startsWith(mappingDirectory)){
+                changedMappings.addAll(findMappings(directory));
+            }
+        } catch (IOException e) {
+            out.printf("DozerMappingVerification: could not watch %s.%n", directory);
+        }
+    }
+
+    // below the mapping directory the excludes apply, class directories are watched as a whole wherever they are
+    private boolean isExcluded(Path directory){
+        return directory.startsWith(mappingDirectory) && !directory.equals(mappingDirectory)
+                && classDirectories.stream().noneMatch(directory::startsWith)
+                && fileFilter.isExcludedDirectory(mappingDirectory.relativize(directory));
+    }
+
+    private boolean isMapping(Path file){
+        return file.startsWith(mappingDirectory) && fileFilter.isIncluded(mappingDirectory.relativize(file));
+    }
+
+    private List<Path> findMappings(Path directory) throws IOException {
+        List<Path> mappings = new ArrayList<>();
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>(){
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                return isExcluded(dir) ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if(attrs.isRegularFile() && isMapping(file)){
+                    mappings.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        mappings.sort(null);
+        return mappings;
+    }
+
+    private List<Path> findMappings(){
+        try {
+            return findMappings(mappingDirectory);
+        } catch (IOException e) {
+            out.printf("DozerMappingVerification: could not list %s.%n", mappingDirectory);
+            return new ArrayList<>();
+        }
+    }
+
+    private boolean isUpToDate(Path mapping){
+        try {
+            return verifier.isUpToDate(mapping.toUri().toString());
+        } catch (URISyntaxException | IOException e) {
+            return false;
+        }
+    }
+
+    // failures are reported, the watcher keeps going until they are fixed
+    private int verify(Path mapping){
+        if(!Files.isRegularFile(mapping)) { return 0; }
+        try {
+            if(!MappingSniffer.isMappingFile(mapping)) { return 0; }
+            verifier.verify(mapping.toUri().toString());
+        } catch (BuildException e) {
+            out.println(e.getMessage());
+        } catch (JAXBException | URISyntaxException ignored) {
+            // only xml files that correspond to the dozer .xsd are verified
+            return 0;
+        } catch (ParserConfigurationException | SAXException | IOException | NoSuchAlgorithmException e) {
+            out.println(e.getMessage());
+        }
+        return 1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+}
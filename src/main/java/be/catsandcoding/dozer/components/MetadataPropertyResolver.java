@@ -0,0 +1,393 @@
+package be.catsandcoding.dozer.components;
+
+import io.github.classgraph.AnnotationInfo;
+import io.github.classgraph.ArrayTypeSignature;
+import io.github.classgraph.BaseTypeSignature;
+import io.github.classgraph.ClassInfo;
+import io.github.classgraph.ClassRefTypeSignature;
+import io.github.classgraph.FieldInfo;
+import io.github.classgraph.MethodInfo;
+import io.github.classgraph.MethodParameterInfo;
+import io.github.classgraph.TypeSignature;
+import org.dozer.DozerConverter;
+
+import javax.xml.bind.annotation.XmlElement;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * The counterpart of {@link PropertyResolver} that works on the class metadata of the scan instead of on loaded
+ * classes, so no scanned class is ever defined or initialized. Types are identified by name, as returned by
+ * {@link java.lang.Class#getTypeName()}.
+ * <p>
+ * Classes outside the scan are only known when they belong to the JDK or to Dozer itself: those are loaded,
+ * without being initialized, and inspected through reflection.
+ */
+public class MetadataPropertyResolver {
+    private static final String XML_ELEMENT = XmlElement.class.getName();
+    private static final String OBJECT = Object.class.getName();
+    private static final Set<String> PRIMITIVES = new HashSet<>(Arrays.asList(
+            "boolean", "byte", "char", "short", "int", "long", "float", "double", "void"));
+    private static final ClassLoader JDK_CLASS_LOADER = ClassLoader.getSystemClassLoader().getParent();
+
+    private final CustomClassLoader customClassLoader;
+    private final PropertyResolver libraryPropertyResolver = new PropertyResolver();
+    private final Map<Key, Resolution> resolutions = new ConcurrentHashMap<>();
+    private final Map<String, Optional<Class<?>>> libraryClasses = new ConcurrentHashMap<>();
+    private final Map<String, List<MethodSignature>> publicMethods = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> supertypes = new ConcurrentHashMap<>();
+    private final CacheStatistics statistics = new CacheStatistics();
+
+    /**
+     * @param customClassLoader a loader that indexes member info
+     */
+    public MetadataPropertyResolver(CustomClassLoader customClassLoader){
+        this.customClassLoader = customClassLoader;
+    }
+
+    public CacheStatistics getStatistics() {
+        return statistics;
+    }
+
+    boolean exists(String className){
+        return customClassLoader.getClassInfo(className).isPresent() || getLibraryClass(className).isPresent();
+    }
+
+    /**
+     * @return the type of the property together with every class visited while walking the (nested) property
+     */
+    Resolution resolve(String className, String name, boolean allowCaseInsensitiveFields) {
+        Key key = new Key(className, name, allowCaseInsensitiveFields);
+        Resolution resolution = resolutions.get(key);
+        if(resolution == null){
+            statistics.miss();
+            // not computeIfAbsent: resolving a nested property resolves the remainder of its path recursively
+            resolution = doResolve(className, name, allowCaseInsensitiveFields);
+            Resolution existing = resolutions.putIfAbsent(key, resolution);
+            resolution = existing == null ? resolution : existing;
+        } else {
+            statistics.hit();
+        }
+        return resolution;
+    }
+
+    private Resolution doResolve(String className, String name, boolean allowCaseInsensitiveFields) {
+        Optional<ClassInfo> scanned = customClassLoader.getClassInfo(className);
+        if(!scanned.isPresent()){
+            return getLibraryClass(className)
+                    .map(clazz -> fromReflection(libraryPropertyResolver.resolve(clazz, name, allowCaseInsensitiveFields)))
+                    .orElseGet(() -> new Resolution(null, Collections.singletonList(className)));
+        }
+
+        ClassInfo clazz = scanned.get();
+        String[] items = name.trim().split("\\.");
+        String propertyName = items[0].trim();
+        List<MethodSignature> methods = getPublicMethods(className);
+        FieldInfo xmlAttachedField;
+        FieldInfo anyMatch;
+        MethodSignature setterMatch = null;
+        MethodSignature getterMatch = null;
+
+        do {
+            xmlAttachedField = getXmlElementField(clazz, name);
+            anyMatch = getDeclaredField(clazz, propertyName, allowCaseInsensitiveFields);
+            if(anyMatch == null){
+                setterMatch = getFirstMethod(methods, constructAccessorName("set", propertyName));
+                getterMatch = getFirstMethod(methods, constructAccessorName("get", propertyName), constructAccessorName("is", propertyName));
+            }
+        } while (xmlAttachedField == null && !(anyMatch != null || setterMatch != null)
+                && (clazz = getScannedSuperclass(clazz)) != null);
+
+        if(xmlAttachedField == null && anyMatch == null && setterMatch == null){
+            return new Resolution(null, Collections.singletonList(className));
+        }
+
+        FieldInfo field = xmlAttachedField != null ? xmlAttachedField : anyMatch;
+        String fieldType = field != null ? typeName(field.getTypeDescriptor()) : null;
+        String getterType = getterMatch != null ? getterMatch.getReturnType() : null;
+        if(items.length == 1){
+            return new Resolution(new Property(fieldType, getterType), Collections.singletonList(className));
+        }
+
+        String remainder = String.join(".", Arrays.copyOfRange(items, 1, items.length));
+        String nestedType = fieldType != null ? fieldType :
+                getterType != null ? getterType : setterMatch.getParameterTypes().get(0);
+        Resolution nested = resolve(nestedType, remainder, allowCaseInsensitiveFields);
+        List<String> visited = new ArrayList<>();
+        visited.add(className);
+        visited.addAll(nested.getVisitedClasses());
+        return new Resolution(nested.getProperty().orElse(null), visited);
+    }
+
+    private static Resolution fromReflection(PropertyResolver.Resolution resolution){
+        Property property = resolution.getAccessor().map(accessor -> new Property(
+                accessor.getField().map(field -> field.getType().getTypeName()).orElse(null),
+                accessor.getPropertyMethod().map(getter -> getter.getReturnType().getTypeName()).orElse(null)))
+                .orElse(null);
+        return new Resolution(property, resolution.getVisitedClasses().stream().map(Class::getName).collect(Collectors.toList()));
+    }
+
+    private static FieldInfo getXmlElementField(ClassInfo clazz, String name){
+        for(FieldInfo field: clazz.getDeclaredFieldInfo()){
+            AnnotationInfo xmlElement = field.getAnnotationInfo(XML_ELEMENT);
+            if(xmlElement != null && name.equals(xmlElement.getParameterValues().getValue("name"))){
+                return field;
+            }
+        }
+        return null;
+    }
+
+    private static FieldInfo getDeclaredField(ClassInfo clazz, String name, boolean ignoringCase){
+        for(FieldInfo field: clazz.getDeclaredFieldInfo()){
+            if(ignoringCase ? field.getName().toLowerCase(Locale.ROOT).equals(name.toLowerCase(Locale.ROOT)) : field.getName().equals(name)){
+                return field;
+            }
+        }
+        return null;
+    }
+
+    // the declared fields of classes outside the scan are not known, the walk up the hierarchy stops there
+    private ClassInfo getScannedSuperclass(ClassInfo clazz){
+        ClassInfo superclass = clazz.getSuperclass();
+        return superclass == null || superclass.isExternalClass() || OBJECT.equals(superclass.getName()) ? null : superclass;
+    }
+
+    private static MethodSignature getFirstMethod(List<MethodSignature> methods, String... names){
+        List<String> accepted = Arrays.asList(names);
+        return methods.stream().filter(method -> accepted.contains(method.getName())).findFirst().orElse(null);
+    }
+
+    private static String constructAccessorName(String prefix, String name){
+        return prefix + name.substring(0,1).toUpperCase() + name.substring(1);
+    }
+
+    /**
+     * @return the public methods of a class, including the inherited ones, like {@link java.lang.Class#getMethods()}
+     */
+    List<MethodSignature> getPublicMethods(String className){
+        return publicMethods.computeIfAbsent(className, this::collectPublicMethods);
+    }
+
+    private List<MethodSignature> collectPublicMethods(String className){
+        Optional<ClassInfo> scanned = customClassLoader.getClassInfo(className);
+        if(!scanned.isPresent()){
+            return getLibraryClass(className).map(clazz -> toSignatures(clazz.getMethods())).orElse(Collections.emptyList());
+        }
+
+        List<ClassInfo> hierarchy = new ArrayList<>();
+        hierarchy.add(scanned.get());
+        hierarchy.addAll(scanned.get().getSuperclasses());
+        hierarchy.addAll(scanned.get().getInterfaces());
+        List<MethodSignature> methods = new ArrayList<>();
+        for(ClassInfo type: hierarchy){
+            if(type.isExternalClass()){
+                getLibraryClass(type.getName()).ifPresent(clazz -> methods.addAll(toSignatures(clazz.getMethods())));
+            } else {
+                type.getDeclaredMethodInfo().stream().filter(MethodInfo::isPublic).map(MethodSignature::new).forEach(methods::add);
+            }
+        }
+        return Collections.unmodifiableList(methods);
+    }
+
+    /**
+     * @return the methods declared by the class itself, whatever their visibility
+     */
+    List<MethodSignature> getDeclaredMethods(String className){
+        Optional<ClassInfo> scanned = customClassLoader.getClassInfo(className);
+        if(!scanned.isPresent()){
+            return getLibraryClass(className).map(clazz -> toSignatures(clazz.getDeclaredMethods())).orElse(Collections.emptyList());
+        }
+        return scanned.get().getDeclaredMethodInfo().stream().map(MethodSignature::new).collect(Collectors.toList());
+    }
+
+    private static List<MethodSignature> toSignatures(Method[] methods){
+        return Arrays.stream(methods).map(MethodSignature::new).collect(Collectors.toList());
+    }
+
+    /**
+     * @return whether a value of the source type can be assigned to the target type, like
+     * {@link java.lang.Class#isAssignableFrom(java.lang.Class)}
+     */
+    boolean isAssignable(String targetType, String sourceType){
+        if(targetType.equals(sourceType)) { return true; }
+        if(PRIMITIVES.contains(targetType) || PRIMITIVES.contains(sourceType)) { return false; }
+        return OBJECT.equals(targetType) || getSupertypes(sourceType).contains(targetType);
+    }
+
+    private Set<String> getSupertypes(String className){
+        return supertypes.computeIfAbsent(className, this::collectSupertypes);
+    }
+
+    private Set<String> collectSupertypes(String className){
+        Set<String> names = new HashSet<>();
+        Optional<ClassInfo> scanned = customClassLoader.getClassInfo(className);
+        if(scanned.isPresent()){
+            List<ClassInfo> types = new ArrayList<>(scanned.get().getSuperclasses());
+            types.addAll(scanned.get().getInterfaces());
+            for(ClassInfo type: types){
+                names.add(type.getName());
+                if(type.isExternalClass()){
+                    getLibraryClass(type.getName()).ifPresent(clazz -> addSupertypes(clazz, names));
+                }
+            }
+        } else {
+            getLibraryClass(className).ifPresent(clazz -> addSupertypes(clazz, names));
+        }
+        return names;
+    }
+
+    private static void addSupertypes(Class<?> clazz, Set<String> names){
+        if(clazz.getSuperclass() != null && names.add(clazz.getSuperclass().getName())){
+            addSupertypes(clazz.getSuperclass(), names);
+        }
+        for(Class<?> implemented: clazz.getInterfaces()){
+            if(names.add(implemented.getName())){
+                addSupertypes(implemented, names);
+            }
+        }
+    }
+
+    private Optional<Class<?>> getLibraryClass(String className){
+        if(PRIMITIVES.contains(className)) { return Optional.empty(); }
+        return libraryClasses.computeIfAbsent(className, name -> {
+            ClassLoader classLoader = name.startsWith("org.dozer.") ? DozerConverter.class.getClassLoader() : JDK_CLASS_LOADER;
+            try {
+                return Optional.of(Class.forName(name, false, classLoader));
+            } catch (ClassNotFoundException | LinkageError e) {
+                return Optional.empty();
+            }
+        });
+    }
+
+    static String typeName(TypeSignature type){
+        if(type instanceof BaseTypeSignature){
+            return ((BaseTypeSignature) type).getTypeStr();
+        }
+        if(type instanceof ClassRefTypeSignature){
+            return ((ClassRefTypeSignature) type).getFullyQualifiedClassName();
+        }
+        if(type instanceof ArrayTypeSignature){
+            ArrayTypeSignature array = (ArrayTypeSignature) type;
+            StringBuilder name = new StringBuilder(typeName(array.getElementTypeSignature()));
+            for(int i = 0; i < array.getNumDimensions(); i++){
+                name.append("[]");
+            }
+            return name.toString();
+        }
+        // type variables are erased in descriptors, should one show up it stands for its bound
+        return OBJECT;
+    }
+
+    static final class Resolution {
+        private final Property property;
+        private final List<String> visitedClasses;
+
+        private Resolution(Property property, List<String> visitedClasses){
+            this.property = property;
+            this.visitedClasses = Collections.unmodifiableList(visitedClasses);
+        }
+
+        /**
+         * @return the property, empty when it does not exist
+         */
+        Optional<Property> getProperty() {
+            return Optional.ofNullable(property);
+        }
+
+        List<String> getVisitedClasses() {
+            return visitedClasses;
+        }
+    }
+
+    /**
+     * The types of the field and getter Dozer would use for a property, either may be missing.
+     */
+    static final class Property {
+        private final String fieldType;
+        private final String getterType;
+
+        private Property(String fieldType, String getterType){
+            this.fieldType = fieldType;
+            this.getterType = getterType;
+        }
+
+        Optional<String> getFieldType() {
+            return Optional.ofNullable(fieldType);
+        }
+
+        Optional<String> getGetterType() {
+            return Optional.ofNullable(getterType);
+        }
+    }
+
+    static final class MethodSignature {
+        private final String name;
+        private final List<String> parameterTypes;
+        private final String returnType;
+
+        private MethodSignature(MethodInfo method){
+            this.name = method.getName();
+            this.parameterTypes = Collections.unmodifiableList(Arrays.stream(method.getParameterInfo())
+                    .map(MethodParameterInfo::getTypeDescriptor).map(MetadataPropertyResolver::typeName)
+                    .collect(Collectors.toList()));
+            this.returnType = typeName(method.getTypeDescriptor().getResultType());
+        }
+
+        private MethodSignature(Method method){
+            this.name = method.getName();
+            this.parameterTypes = Collections.unmodifiableList(Arrays.stream(method.getParameterTypes())
+                    .map(Class::getTypeName).collect(Collectors.toList()));
+            this.returnType = method.getReturnType().getTypeName();
+        }
+
+        String getName() {
+            return name;
+        }
+
+        List<String> getParameterTypes() {
+            return parameterTypes;
+        }
+
+        String getReturnType() {
+            return returnType;
+        }
+    }
+
+    private static final class Key {
+        private final String className;
+        private final String name;
+        private final boolean allowCaseInsensitiveFields;
+
+        private Key(String className, String name, boolean allowCaseInsensitiveFields){
+            this.className = className;
+            this.name = name;
+            this.allowCaseInsensitiveFields = allowCaseInsensitiveFields;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return allowCaseInsensitiveFields == key.allowCaseInsensitiveFields &&
+                    className.equals(key.className) &&
+                    name.equals(key.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(className, name, allowCaseInsensitiveFields);
+        }
+    }
+}
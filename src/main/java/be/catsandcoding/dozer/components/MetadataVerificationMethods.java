@@ -0,0 +1,89 @@
+package be.catsandcoding.dozer.components;
+
+import be.catsandcoding.dozer.components.MetadataPropertyResolver.MethodSignature;
+import be.catsandcoding.dozer.components.MetadataPropertyResolver.Property;
+import be.catsandcoding.dozer.components.VerificationMetrics.FileMetrics;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Does the same verifications as {@link VerificationMethods}, sharing their checks and messages, but on the class
+ * metadata of the scan: the mapped classes and the converters are never loaded, so none of their static initializers
+ * run.
+ */
+public class MetadataVerificationMethods extends AbstractMappingVerification<String, Property> {
+    private final MetadataPropertyResolver propertyResolver;
+    private final boolean allowCaseInsensitiveFields;
+
+    /**
+     * @param propertyResolver shared by all verifications of a run, so each class and property path is only
+     *                         resolved once
+     * @param metrics the timers of the file being verified
+     */
+    public MetadataVerificationMethods(MetadataPropertyResolver propertyResolver, boolean allowCaseInsensitiveFields,
+                                       boolean ignoringErrorsAllowed, PrintStream out, FileMetrics metrics){
+        super(ignoringErrorsAllowed, out, metrics);
+        this.propertyResolver = propertyResolver;
+        this.allowCaseInsensitiveFields = allowCaseInsensitiveFields;
+    }
+
+    @Override
+    void addReferencedClass(String className){
+        if(!className.endsWith("[]") && className.contains(".")){
+            addReferencedClassName(className);
+        }
+    }
+
+    @Override
+    Optional<String> resolveClass(String className) {
+        return propertyResolver.exists(className) ? Optional.of(className) : Optional.empty();
+    }
+
+    @Override
+    Optional<Property> resolveProperty(String className, String name) {
+        MetadataPropertyResolver.Resolution resolution = propertyResolver.resolve(className, name, allowCaseInsensitiveFields);
+        resolution.getVisitedClasses().forEach(this::addReferencedClass);
+        return resolution.getProperty();
+    }
+
+    @Override
+    Optional<String> getType(Property property) {
+        return property.getFieldType().isPresent() ? property.getFieldType() : property.getGetterType();
+    }
+
+    @Override
+    String getDisplayName(String className) {
+        return className.replace('$', '.');
+    }
+
+    @Override
+    boolean isDozerConverter(String classConverter) {
+        List<String> methodNames = propertyResolver.getPublicMethods(classConverter).stream()
+                .map(MethodSignature::getName).collect(Collectors.toList());
+        return methodNames.contains("convertTo") && methodNames.contains("convertFrom");
+    }
+
+    @Override
+    boolean hasConvertTo(String classConverter, String fromField, String toField) {
+        return propertyResolver.getPublicMethods(classConverter).stream().filter(m -> m.getName().equals("convertTo"))
+                .anyMatch(m -> m.getParameterTypes().size() == 2 &&
+                        (m.getParameterTypes().get(0).equals(fromField) &&
+                                m.getParameterTypes().get(1).equals(toField) &&
+                                m.getReturnType().equals(toField)) ||
+                        (propertyResolver.isAssignable(m.getParameterTypes().get(0), fromField) &&
+                                propertyResolver.isAssignable(m.getParameterTypes().get(1), toField) &&
+                                propertyResolver.isAssignable(m.getReturnType(), toField))
+                );
+    }
+
+    @Override
+    boolean hasConvertFrom(String classConverter, String fromField, String toField) {
+        return propertyResolver.getDeclaredMethods(classConverter).stream()
+                .anyMatch(m -> m.getName().equals("convertFrom") && m.getParameterTypes().size() == 2 &&
+                        m.getParameterTypes().get(0).equals(toField) && m.getParameterTypes().get(1).equals(fromField) &&
+                        m.getReturnType().equals(fromField));
+    }
+}
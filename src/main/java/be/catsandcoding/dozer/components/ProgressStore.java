@@ -0,0 +1,24 @@
+package be.catsandcoding.dozer.components;
+
+import java.util.Optional;
+
+/**
+ * Remembers which mapping files were verified successfully, so unchanged files can be skipped the next run.
+ * Implementations must be safe to use from several workers at once.
+ */
+public interface ProgressStore extends AutoCloseable {
+    Optional<FileFingerprint> get(String pathToXmlResource);
+
+    void put(String pathToXmlResource, FileFingerprint fingerprint);
+
+    /**
+     * Persists everything put so far.
+     */
+    void flush();
+
+    /**
+     * Flushes and releases the store.
+     */
+    @Override
+    void close();
+}
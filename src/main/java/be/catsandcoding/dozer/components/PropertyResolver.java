@@ -0,0 +1,216 @@
+package be.catsandcoding.dozer.components;
+
+import javax.xml.bind.annotation.XmlElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves (nested) property names to the field and getter Dozer would use. Meant to live for a whole run:
+ * the fields, public methods and {@link XmlElement} names of each class are indexed once and every resolved
+ * property path, including the ones that could not be found, is remembered. The convertTo and convertFrom
+ * overloads of converter classes are indexed the same way.
+ */
+public class PropertyResolver {
+    private final Map<Class<?>, ClassProperties> classProperties = new ConcurrentHashMap<>();
+    private final Map<Key, Resolution> resolutions = new ConcurrentHashMap<>();
+    private final CacheStatistics statistics = new CacheStatistics();
+    private final Map<Class<?>, ConverterMethods> converterMethods = new ConcurrentHashMap<>();
+    private final CacheStatistics converterStatistics = new CacheStatistics();
+
+    /**
+     * @return the accessor of the property together with every class visited while walking the (nested) property
+     */
+    Resolution resolve(Class<?> clazz, String name, boolean allowCaseInsensitiveFields) {
+        Key key = new Key(clazz, name, allowCaseInsensitiveFields);
+        Resolution resolution = resolutions.get(key);
+        if(resolution == null){
+            statistics.miss();
+            // not computeIfAbsent: resolving a nested property resolves the remainder of its path recursively
+            resolution = doResolve(clazz, name, allowCaseInsensitiveFields);
+            Resolution existing = resolutions.putIfAbsent(key, resolution);
+            resolution = existing == null ? resolution : existing;
+        } else {
+            statistics.hit();
+        }
+        return resolution;
+    }
+
+    public CacheStatistics getStatistics() {
+        return statistics;
+    }
+
+    ConverterMethods getConverterMethods(Class<?> converter) {
+        ConverterMethods methods = converterMethods.get(converter);
+        if(methods != null){
+            converterStatistics.hit();
+            return methods;
+        }
+        converterStatistics.miss();
+        return converterMethods.computeIfAbsent(converter, ConverterMethods::new);
+    }
+
+    public CacheStatistics getConverterStatistics() {
+        return converterStatistics;
+    }
+
+    /**
+     * Forgets everything resolved so far, for when the classes are reloaded.
+     */
+    void clear() {
+        classProperties.clear();
+        resolutions.clear();
+        converterMethods.clear();
+    }
+
+    private Resolution doResolve(Class<?> clazz, String name, boolean allowCaseInsensitiveFields) {
+        Class<?> owner = clazz;
+        String[] items = name.trim().split("\\.");
+        String propertyName = items[0].trim();
+        Field xmlAttachedField;
+        Field anyMatch;
+        Method setterMatch = null;
+        Method getterMatch = null;
+
+        do {
+            ClassProperties properties = getClassProperties(clazz);
+            xmlAttachedField = properties.getXmlElementField(name);
+            anyMatch = properties.getDeclaredField(propertyName, allowCaseInsensitiveFields);
+            if(anyMatch == null){
+                setterMatch = properties.getSetter(propertyName);
+                getterMatch = properties.getGetter(propertyName);
+            }
+        } while (xmlAttachedField == null && !(anyMatch != null || setterMatch != null)
+                && (clazz = clazz.getSuperclass()) != null && !clazz.equals(Object.class));
+
+        if(xmlAttachedField == null && anyMatch == null && setterMatch == null){
+            return new Resolution(null, Collections.singletonList(owner));
+        }
+
+        Field field = xmlAttachedField != null ? xmlAttachedField : anyMatch;
+        if(items.length == 1){
+            return new Resolution(new FieldAccessor(field, getterMatch), Collections.singletonList(owner));
+        }
+
+        String remainder = String.join(".", Arrays.copyOfRange(items, 1, items.length));
+        Class<?> nestedType = field != null ? field.getType() :
+                getterMatch != null ? getterMatch.getReturnType() : setterMatch.getParameterTypes()[0];
+        Resolution nested = resolve(nestedType, remainder, allowCaseInsensitiveFields);
+        List<Class<?>> visited = new ArrayList<>();
+        visited.add(owner);
+        visited.addAll(nested.getVisitedClasses());
+        return new Resolution(nested.getAccessor().orElse(null), visited);
+    }
+
+    private ClassProperties getClassProperties(Class<?> clazz){
+        return classProperties.computeIfAbsent(clazz, ClassProperties::new);
+    }
+
+    static final class Resolution {
+        private final FieldAccessor accessor;
+        private final List<Class<?>> visitedClasses;
+
+        private Resolution(FieldAccessor accessor, List<Class<?>> visitedClasses){
+            this.accessor = accessor;
+            this.visitedClasses = Collections.unmodifiableList(visitedClasses);
+        }
+
+        /**
+         * @return the accessor, empty when the property does not exist
+         */
+        Optional<FieldAccessor> getAccessor() {
+            return Optional.ofNullable(accessor);
+        }
+
+        List<Class<?>> getVisitedClasses() {
+            return visitedClasses;
+        }
+    }
+
+    /**
+     * The declared fields and public methods of a single class, indexed by name.
+     */
+    private static final class ClassProperties {
+        private final Map<String, Field> declaredFields = new HashMap<>();
+        private final Map<String, Field> declaredFieldsIgnoringCase = new HashMap<>();
+        private final Map<String, Field> xmlElementFields = new HashMap<>();
+        private final Map<String, Integer> publicMethodPositions = new HashMap<>();
+        private final Method[] publicMethods;
+
+        private ClassProperties(Class<?> clazz){
+            for(Field field: clazz.getDeclaredFields()){
+                declaredFields.putIfAbsent(field.getName(), field);
+                declaredFieldsIgnoringCase.putIfAbsent(field.getName().toLowerCase(Locale.ROOT), field);
+                XmlElement xmlElement = field.getDeclaredAnnotation(XmlElement.class);
+                if(xmlElement != null){
+                    xmlElementFields.put(xmlElement.name(), field);
+                }
+            }
+            publicMethods = clazz.getMethods();
+            for(int i = 0; i < publicMethods.length; i++){
+                publicMethodPositions.putIfAbsent(publicMethods[i].getName(), i);
+            }
+        }
+
+        private Field getXmlElementField(String name){
+            return xmlElementFields.get(name);
+        }
+
+        private Field getDeclaredField(String name, boolean ignoringCase){
+            return ignoringCase ? declaredFieldsIgnoringCase.get(name.toLowerCase(Locale.ROOT)) : declaredFields.get(name);
+        }
+
+        private Method getSetter(String propertyName){
+            return getFirstMethod(constructAccessorName("set", propertyName));
+        }
+
+        private Method getGetter(String propertyName){
+            return getFirstMethod(constructAccessorName("get", propertyName), constructAccessorName("is", propertyName));
+        }
+
+        private Method getFirstMethod(String... names){
+            return Arrays.stream(names).map(publicMethodPositions::get).filter(Objects::nonNull)
+                    .min(Integer::compare).map(position -> publicMethods[position]).orElse(null);
+        }
+
+        private static String constructAccessorName(String prefix, String name){
+            return prefix + name.substring(0,1).toUpperCase() + name.substring(1);
+        }
+    }
+
+    private static final class Key {
+        private final Class<?> clazz;
+        private final String name;
+        private final boolean allowCaseInsensitiveFields;
+
+        private Key(Class<?> clazz, String name, boolean allowCaseInsensitiveFields){
+            this.clazz = clazz;
+            this.name = name;
+            this.allowCaseInsensitiveFields = allowCaseInsensitiveFields;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return allowCaseInsensitiveFields == key.allowCaseInsensitiveFields &&
+                    clazz.equals(key.clazz) &&
+                    name.equals(key.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(clazz, name, allowCaseInsensitiveFields);
+        }
+    }
+}
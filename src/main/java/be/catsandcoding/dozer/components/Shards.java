@@ -0,0 +1,97 @@
+package be.catsandcoding.dozer.components;
+
+import be.catsandcoding.dozer.Options;
+import org.apache.tools.ant.BuildException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Splits the mapping files over shards that are verified separately, for instance by several CI agents, and merges
+ * what those shards kept into the progress-file and metrics report of an unsharded run.
+ * <p>
+ * A mapping file belongs to the shard given by the CRC32 of its path relative to the walked directory, or of the
+ * path as given when verifying a list of files, so every agent picks the same files whatever directory it runs in.
+ */
+public final class Shards {
+    private Shards(){}
+
+    static boolean contains(int shardIndex, int shardCount, String pathToXmlResource){
+        if(shardCount <= 1) { return true; }
+
+        CRC32 crc = new CRC32();
+        crc.update(pathToXmlResource.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue() % shardCount == shardIndex;
+    }
+
+    static void check(int shardIndex, int shardCount){
+        if(shardCount < 1 || shardIndex < 0 || shardIndex >= shardCount){
+            throw new IllegalArgumentException(String.format("DozerMappingVerification: shard %d of %d does not exist, " +
+                    "the shard index counts from 0 up to the shard count", shardIndex, shardCount));
+        }
+    }
+
+    /**
+     * @return where a shard keeps the file that an unsharded run keeps at the given path
+     */
+    public static String getShardPath(String path, int shardIndex, int shardCount){
+        return shardCount <= 1 ? path : String.format("%s.shard-%d-of-%d", path, shardIndex, shardCount);
+    }
+
+    /**
+     * Combines the progress-files and metrics reports of all {@link Options#getShardCount()} shards into the
+     * configured progress-file and metrics report, so the next unsharded run, or every shard of the next sharded
+     * run, skips what any of them verified. Fails when a shard left nothing behind.
+     */
+    public static void merge(Options options) throws IOException {
+        int shardCount = options.getShardCount();
+        if(options.getPathToProgressKeepingFile().isPresent()){
+            Path merged = Paths.get(options.getPathToProgressKeepingFile().get());
+            int verified = 0;
+            try(FileProgressStore store = new FileProgressStore(merged, Integer.MAX_VALUE)) {
+                for(int shardIndex = 0; shardIndex < shardCount; shardIndex++){
+                    Path shard = getExistingShardFile(merged.toString(), shardIndex, shardCount);
+                    Map<String, FileFingerprint> fingerprints = new FileProgressStore(shard).getAll();
+                    fingerprints.forEach(store::put);
+                    verified += fingerprints.size();
+                }
+            }
+            System.out.printf("DozerMappingVerification: merged the progress of %d shards, %d verified files, into %s.%n",
+                    shardCount, verified, merged);
+        }
+        if(options.getPathToMetricsReport().isPresent()){
+            Path merged = Paths.get(options.getPathToMetricsReport().get());
+            try(Writer out = new BufferedWriter(Files.newBufferedWriter(merged, StandardCharsets.UTF_8))) {
+                out.write("{\n");
+                out.write("  \"shardCount\": " + shardCount + ",\n");
+                out.write("  \"shards\": [");
+                String separator = "\n";
+                for(int shardIndex = 0; shardIndex < shardCount; shardIndex++){
+                    Path shard = getExistingShardFile(merged.toString(), shardIndex, shardCount);
+                    String report = new String(Files.readAllBytes(shard), StandardCharsets.UTF_8).trim();
+                    out.write(separator + "  " + report.replace("\n", "\n  "));
+                    separator = ",\n";
+                }
+                out.write("\n  ]\n");
+                out.write("}\n");
+            }
+            System.out.printf("DozerMappingVerification: merged the metrics reports of %d shards into %s.%n", shardCount, merged);
+        }
+    }
+
+    private static Path getExistingShardFile(String path, int shardIndex, int shardCount){
+        Path shard = Paths.get(getShardPath(path, shardIndex, shardCount));
+        if(!Files.isRegularFile(shard)){
+            throw new BuildException(String.format("DozerMappingVerification: shard %d of %d left nothing to merge at %s",
+                    shardIndex, shardCount, shard));
+        }
+        return shard;
+    }
+}
@@ -0,0 +1,95 @@
+package be.catsandcoding.dozer.components;
+
+import be.catsandcoding.dozer.generated.Configuration;
+import be.catsandcoding.dozer.generated.Mapping;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.UnmarshalException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Reads a mapping file one top level element at a time: every {@code <mapping>} and the {@code <configuration>} is
+ * unmarshalled on its own and handed over before the next one is read, so only one of them is in memory at once.
+ */
+class StreamingMappingReader implements MappingReader {
+    static final String DOZER_NAMESPACE = "http://dozer.sourceforge.net";
+
+    // factories are not guaranteed to be thread-safe
+    private static final ThreadLocal<XMLInputFactory> XML_INPUT_FACTORY = ThreadLocal.withInitial(XMLInputFactory::newInstance);
+
+    private final Unmarshaller unmarshaller;
+
+    StreamingMappingReader(Unmarshaller unmarshaller){
+        this.unmarshaller = unmarshaller;
+    }
+
+    @Override
+    public void read(InputStream in, Consumer<Configuration> configurationHandler, Consumer<Mapping> mappingHandler) throws JAXBException {
+        XMLStreamReader reader = null;
+        try {
+            reader = openMappings(in);
+            reader.nextTag();
+            while (reader.getEventType() == XMLStreamConstants.START_ELEMENT) {
+                if ("mapping".equals(reader.getLocalName())) {
+                    mappingHandler.accept(unmarshaller.unmarshal(reader, Mapping.class).getValue());
+                } else if ("configuration".equals(reader.getLocalName())) {
+                    configurationHandler.accept(unmarshaller.unmarshal(reader, Configuration.class).getValue());
+                } else {
+                    skipElement(reader);
+                }
+                toNextTag(reader);
+            }
+        } catch (XMLStreamException e) {
+            throw new UnmarshalException(e);
+        } finally {
+            close(reader);
+        }
+    }
+
+    /**
+     * @return a reader positioned on the {@code <mappings>} root element
+     * @throws UnmarshalException when the document is not a Dozer mapping file
+     */
+    static XMLStreamReader openMappings(InputStream in) throws XMLStreamException, UnmarshalException {
+        XMLStreamReader reader = XML_INPUT_FACTORY.get().createXMLStreamReader(in);
+        if(reader.nextTag() != XMLStreamConstants.START_ELEMENT || !"mappings".equals(reader.getLocalName())
+                || !DOZER_NAMESPACE.equals(reader.getNamespaceURI())){
+            throw new UnmarshalException(String.format("unexpected element %s, expected {%s}mappings", reader.getName(), DOZER_NAMESPACE));
+        }
+        return reader;
+    }
+
+    static void close(XMLStreamReader reader){
+        if(reader != null) {
+            try {
+                reader.close();
+            } catch (XMLStreamException ignored) {
+                // nothing left to read
+            }
+        }
+    }
+
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        for(int depth = 1; depth > 0; ){
+            int event = reader.next();
+            if(event == XMLStreamConstants.START_ELEMENT) { depth++; }
+            if(event == XMLStreamConstants.END_ELEMENT) { depth--; }
+        }
+        reader.next();
+    }
+
+    // unmarshalling leaves the reader on whatever follows the element, which may already be the next tag
+    private static void toNextTag(XMLStreamReader reader) throws XMLStreamException {
+        int event = reader.getEventType();
+        while(event != XMLStreamConstants.START_ELEMENT && event != XMLStreamConstants.END_ELEMENT
+                && event != XMLStreamConstants.END_DOCUMENT){
+            event = reader.next();
+        }
+    }
+}
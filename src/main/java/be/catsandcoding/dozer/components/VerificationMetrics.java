@@ -0,0 +1,221 @@
+package be.catsandcoding.dozer.components;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timers and counters of a verification run, per phase and per file, and the hit rates of the run-wide caches.
+ * Written as a JSON summary at the end of the run when a metrics report is configured.
+ */
+public class VerificationMetrics {
+    public enum Phase {
+        /** size, modification time, content hash and class fingerprints to decide whether a file changed */
+        FINGERPRINTING,
+        /** reading the mapping XML */
+        PARSING,
+        /** looking up class-a, class-b and converter classes, including the classpath scan of the first lookup */
+        CLASS_RESOLUTION,
+        /** resolving fields, getters and setters */
+        FIELD_RESOLUTION,
+        /** checking converter signatures */
+        CONVERTER_CHECKS,
+        /** recording results in the progress store */
+        PROGRESS_WRITING
+    }
+
+    public enum Outcome { VERIFIED, SKIPPED, FAILED }
+
+    private final long startedAt = System.nanoTime();
+    private final Map<Phase, LongAdder> phaseNanos = new EnumMap<>(Phase.class);
+    private final Map<Outcome, LongAdder> outcomes = new EnumMap<>(Outcome.class);
+    private final LongAdder mappings = new LongAdder();
+    // the last verification of every file, a file verified again in watch mode replaces its earlier one
+    private final Map<String, FileMetrics> files = new ConcurrentHashMap<>();
+    private final Map<String, CacheStatistics> caches = new ConcurrentHashMap<>();
+    private final LongAdder classScanningNanos = new LongAdder();
+
+    public VerificationMetrics(){
+        for(Phase phase: Phase.values()){
+            phaseNanos.put(phase, new LongAdder());
+        }
+        for(Outcome outcome: Outcome.values()){
+            outcomes.put(outcome, new LongAdder());
+        }
+    }
+
+    public FileMetrics startFile(String pathToXmlResource){
+        return new FileMetrics(pathToXmlResource);
+    }
+
+    void finish(FileMetrics fileMetrics, Outcome outcome){
+        fileMetrics.finish(outcome);
+        fileMetrics.phaseNanos.forEach((phase, nanos) -> phaseNanos.get(phase).add(nanos));
+        outcomes.get(outcome).increment();
+        mappings.add(fileMetrics.mappings);
+        files.put(fileMetrics.getPathToXmlResource(), fileMetrics);
+    }
+
+    void record(Phase phase, long startNanos){
+        phaseNanos.get(phase).add(System.nanoTime() - startNanos);
+    }
+
+    void registerCache(String name, CacheStatistics statistics){
+        caches.put(name, statistics);
+    }
+
+    // every class loader of the run adds its own scan
+    void addClassScanningNanos(long classScanningNanos){
+        this.classScanningNanos.add(classScanningNanos);
+    }
+
+    public long getPhaseNanos(Phase phase){
+        return phaseNanos.get(phase).sum();
+    }
+
+    public long getCount(Outcome outcome){
+        return outcomes.get(outcome).sum();
+    }
+
+    public Map<String, CacheStatistics> getCaches(){
+        return Collections.unmodifiableMap(new TreeMap<>(caches));
+    }
+
+    public void writeJson(Path report) throws IOException {
+        List<FileMetrics> sortedFiles = new ArrayList<>(files.values());
+        sortedFiles.sort(Comparator.comparing(FileMetrics::getPathToXmlResource));
+
+        try(Writer out = new BufferedWriter(Files.newBufferedWriter(report, StandardCharsets.UTF_8))){
+            out.write("{\n");
+            out.write("  \"totalMillis\": " + millis(System.nanoTime() - startedAt) + ",\n");
+            out.write("  \"classScanningMillis\": " + millis(classScanningNanos.sum()) + ",\n");
+            out.write("  \"files\": {");
+            String separator = "";
+            for(Outcome outcome: Outcome.values()){
+                out.write(separator + json(outcome.name().toLowerCase()) + ": " + getCount(outcome));
+                separator = ", ";
+            }
+            out.write("},\n");
+            out.write("  \"mappings\": " + mappings.sum() + ",\n");
+            Map<Phase, Long> totals = new EnumMap<>(Phase.class);
+            phaseNanos.forEach((phase, nanos) -> totals.put(phase, nanos.sum()));
+            out.write("  \"phaseMillis\": " + phasesToJson(totals) + ",\n");
+            out.write("  \"caches\": {");
+            separator = "\n";
+            for(Map.Entry<String, CacheStatistics> cache: getCaches().entrySet()){
+                out.write(separator + "    " + json(cache.getKey()) + ": {\"hits\": " + cache.getValue().getHits()
+                        + ", \"misses\": " + cache.getValue().getMisses()
+                        + ", \"hitRate\": " + String.format(Locale.ROOT, "%.4f", cache.getValue().getHitRate()) + "}");
+                separator = ",\n";
+            }
+            out.write(caches.isEmpty() ? "},\n" : "\n  },\n");
+            out.write("  \"perFile\": [");
+            separator = "\n";
+            for(FileMetrics file: sortedFiles){
+                out.write(separator + "    {\"path\": " + json(file.getPathToXmlResource())
+                        + ", \"outcome\": " + json(file.outcome.name().toLowerCase())
+                        + ", \"millis\": " + millis(file.totalNanos)
+                        + ", \"mappings\": " + file.mappings
+                        + ", \"phaseMillis\": " + phasesToJson(file.phaseNanos) + "}");
+                separator = ",\n";
+            }
+            out.write(sortedFiles.isEmpty() ? "]\n" : "\n  ]\n");
+            out.write("}\n");
+        }
+    }
+
+    private static String phasesToJson(Map<Phase, Long> nanos){
+        StringBuilder json = new StringBuilder("{");
+        String separator = "";
+        for(Map.Entry<Phase, Long> phase: nanos.entrySet()){
+            json.append(separator).append(json(phase.getKey().name().toLowerCase())).append(": ").append(millis(phase.getValue()));
+            separator = ", ";
+        }
+        return json.append('}').toString();
+    }
+
+    private static String millis(long nanos){
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000d);
+    }
+
+    static String json(String value){
+        StringBuilder json = new StringBuilder("\"");
+        for(char c: value.toCharArray()){
+            switch (c){
+                case '"': json.append("\\\""); break;
+                case '\\': json.append("\\\\"); break;
+                case '\n': json.append("\\n"); break;
+                case '\r': json.append("\\r"); break;
+                case '\t': json.append("\\t"); break;
+                default:
+                    if(c < 0x20){
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        return json.append('"').toString();
+    }
+
+    /**
+     * The timers of a single file, only to be used by the thread verifying that file.
+     */
+    public static final class FileMetrics {
+        private final String pathToXmlResource;
+        private final long startedAt = System.nanoTime();
+        private final Map<Phase, Long> phaseNanos = new EnumMap<>(Phase.class);
+        private int mappings = 0;
+        private long totalNanos;
+        private Outcome outcome;
+
+        private FileMetrics(String pathToXmlResource){
+            this.pathToXmlResource = pathToXmlResource;
+        }
+
+        public String getPathToXmlResource() {
+            return pathToXmlResource;
+        }
+
+        /**
+         * Adds the time since {@code startNanos}, as returned by {@link System#nanoTime()}, to the given phase.
+         */
+        public void record(Phase phase, long startNanos){
+            phaseNanos.merge(phase, System.nanoTime() - startNanos, Long::sum);
+        }
+
+        void add(Phase phase, long nanos){
+            phaseNanos.merge(phase, nanos, Long::sum);
+        }
+
+        public long getPhaseNanos(Phase... phases){
+            long total = 0;
+            for(Phase phase: phases){
+                total += phaseNanos.getOrDefault(phase, 0L);
+            }
+            return total;
+        }
+
+        public void countMapping(){
+            mappings++;
+        }
+
+        private void finish(Outcome outcome){
+            this.totalNanos = System.nanoTime() - startedAt;
+            this.outcome = outcome;
+        }
+    }
+}
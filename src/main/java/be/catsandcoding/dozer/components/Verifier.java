@@ -1,6 +1,9 @@
 package be.catsandcoding.dozer.components;
 
 import be.catsandcoding.dozer.Options;
+import be.catsandcoding.dozer.components.VerificationMetrics.FileMetrics;
+import be.catsandcoding.dozer.components.VerificationMetrics.Outcome;
+import be.catsandcoding.dozer.components.VerificationMetrics.Phase;
 import be.catsandcoding.dozer.generated.*;
 import org.apache.tools.ant.BuildException;
 import org.xml.sax.SAXException;
@@ -11,116 +14,762 @@ import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
 import javax.xml.parsers.ParserConfigurationException;
 import java.io.*;
-import java.net.URI;
 import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.FileVisitResult;
 import java.nio.file.FileVisitor;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class Verifier implements FileVisitor<Path>, AutoCloseable {
+    private static final long MEMORY_MAPPING_THRESHOLD = 1024 * 1024;
+    private static final long MEMORY_MAPPED_REGION_SIZE = 64 * 1024 * 1024;
+    private static final String GENERATED_SOURCES_MANIFEST = ".dozer-mapping-verification.mappers";
 
-public class Verifier implements FileVisitor<Path> {
     private CustomClassLoader customClassLoader = null;
 
-    private final JAXBContext jc = JAXBContext.newInstance(Mappings.class);
-    private final Unmarshaller unmarshaller = jc.createUnmarshaller();
-    private final HashMap<String, String> processed;
+    // creating the context is expensive, it is shared by all verifiers in this class loader
+    private static volatile JAXBContext jaxbContext = null;
+    // an Unmarshaller is not thread-safe, every thread gets its own
+    private static final ThreadLocal<Unmarshaller> UNMARSHALLER = new ThreadLocal<>();
+
+    private final ProgressStore progressStore;
+    private final PropertyResolver propertyResolver = new PropertyResolver();
+    private MetadataPropertyResolver metadataPropertyResolver = null;
+    private URLClassLoader resourceLoader = null;
+    private Path walkedDirectory = null;
+    private final MappingFileFilter fileFilter;
+    private final MappingCostAnalysis costAnalysis;
+    private final MapperGenerator mapperGenerator;
+    private final Map<String, DeduplicatingVerification.Verdict> verdicts = new ConcurrentHashMap<>();
+    private final CacheStatistics verdictStatistics = new CacheStatistics();
+    private final VerificationMetrics metrics = new VerificationMetrics();
+    private final Set<String> referencedPackages = new TreeSet<>();
     private final Options options;
 
+    private ExecutorService executor = null;
+    private final List<Future<VerificationResult>> pendingVerifications = new ArrayList<>();
+
 
     public Verifier(Options options) throws JAXBException {
+        this(options, getPathToProgressKeepingFile(options)
+                .<ProgressStore>map(path -> new FileProgressStore(Paths.get(path)))
+                .orElseGet(InMemoryProgressStore::new));
+    }
+
+    public Verifier(Options options, ProgressStore progressStore) throws JAXBException {
+        Shards.check(options.getShardIndex(), options.getShardCount());
+        if(options.isMetadataOnlyVerificationEnabled()
+                && (options.getPathToCostReport().isPresent() || options.getPathToGeneratedSources().isPresent())){
+            throw new IllegalArgumentException("DozerMappingVerification: the cost report and the generated mappers load " +
+                    "and initialize the mapped classes, they cannot be combined with metadata-only verification");
+        }
         this.options = options;
-        processed = loadPreviouslyProcessedFiles(options.getPathToProgressKeepingFile().orElse(null));
+        this.progressStore = progressStore;
+        this.fileFilter = new MappingFileFilter(options.getIncludes(), options.getExcludes());
+        this.costAnalysis = options.getPathToCostReport().isPresent() ?
+                new MappingCostAnalysis(propertyResolver, options.isCaseInsensitiveFieldMatchingAllowed()) : null;
+        this.mapperGenerator = options.getPathToGeneratedSources().isPresent() ?
+                new MapperGenerator(options.isCaseInsensitiveFieldMatchingAllowed()) : null;
+        this.metrics.registerCache("properties", propertyResolver.getStatistics());
+        this.metrics.registerCache("converterMethods", propertyResolver.getConverterStatistics());
+        this.metrics.registerCache("verdicts", verdictStatistics);
+    }
+
+    /**
+     * @return which files below a walked directory are verified, as the includes and excludes of the options say
+     */
+    MappingFileFilter getFileFilter() {
+        return fileFilter;
+    }
+
+    public VerificationMetrics getMetrics() {
+        return metrics;
+    }
+
+    // every shard keeps its own progress, and class index, next to the configured progress-file
+    private static Optional<String> getPathToProgressKeepingFile(Options options) {
+        return options.getPathToProgressKeepingFile()
+                .map(path -> Shards.getShardPath(path, options.getShardIndex(), options.getShardCount()));
     }
 
-    private CustomClassLoader getCustomClassLoader() {
+    private synchronized CustomClassLoader getCustomClassLoader() {
         if(this.customClassLoader == null){
-            this.customClassLoader = new CustomClassLoader(options.getClassPathDirectories());
+            // the class index is kept next to the progress-file, runs that keep no progress scan every time
+            Path classIndexFile = getPathToProgressKeepingFile(options)
+                    .map(path -> Paths.get(path).resolveSibling(Paths.get(path).getFileName() + ".classes"))
+                    .orElse(null);
+            this.customClassLoader = new CustomClassLoader(options.getClassPathDirectories(), referencedPackages,
+                    options.isMetadataOnlyVerificationEnabled(), classIndexFile);
+            metrics.registerCache("classes", customClassLoader.getClassStatistics());
+            metrics.registerCache("classFingerprints", customClassLoader.getFingerprintStatistics());
         }
         return this.customClassLoader;
     }
 
-    @SuppressWarnings("unchecked")
-    private HashMap<String, String> loadPreviouslyProcessedFiles(String path){
-        HashMap<String, String> found = new HashMap<>();
-        if(path != null) {
-            try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(path))) {
-                found = (HashMap<String, String>) in.readObject();
-            } catch (IOException | ClassNotFoundException ignored) {
-                System.out.printf("DozerMappingVerification: could not load progress-file at %s.%n", path);
+    // finds mapping files given as classpath resources, without waiting for the classpath scan
+    private synchronized ClassLoader getResourceLoader() throws IOException {
+        if(this.resourceLoader == null){
+            List<URL> urls = new ArrayList<>();
+            for(String path: options.getClassPathDirectories()){
+                if(!path.isEmpty()) { urls.add(Paths.get(path).toUri().toURL()); }
             }
+            this.resourceLoader = new URLClassLoader(urls.toArray(new URL[0]), Thread.currentThread().getContextClassLoader());
+        }
+        return this.resourceLoader;
+    }
+
+    private MappingResource getMappingResource(String pathToXmlResource) throws URISyntaxException, IOException {
+        return MappingResource.resolve(pathToXmlResource, getResourceLoader());
+    }
+
+    private synchronized MetadataPropertyResolver getMetadataPropertyResolver() {
+        if(this.metadataPropertyResolver == null){
+            this.metadataPropertyResolver = new MetadataPropertyResolver(getCustomClassLoader());
+            metrics.registerCache("metadataProperties", metadataPropertyResolver.getStatistics());
+        }
+        return this.metadataPropertyResolver;
+    }
+
+    private boolean isParallel(){
+        return options.getNumberOfWorkers() > 1;
+    }
+
+    private synchronized ExecutorService getExecutor(){
+        if(this.executor == null){
+            this.executor = Executors.newFixedThreadPool(options.getNumberOfWorkers(), runnable -> {
+                Thread thread = new Thread(runnable, "DozerMappingVerification-worker");
+                thread.setDaemon(true);
+                return thread;
+            });
         }
-        return found;
+        return this.executor;
     }
 
-    private void savePreviouslyProcessedFiles(){
-        options.getPathToProgressKeepingFile().ifPresent( file -> {
-            try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file))) {
-                out.writeObject(processed);
+    @Override
+    public synchronized void close() {
+        if(this.executor != null){
+            this.executor.shutdownNow();
+            this.executor = null;
+        }
+        closeClassLoader();
+        if(this.resourceLoader != null){
+            try {
+                this.resourceLoader.close();
             } catch (IOException ignored) {
-                System.out.println("ATTENTION: COULD NOT SAVE PROGRESS FILE CHECKING WILL BE SLOWER NEXT TIME! (check path settings in .pom)%n");
+                // nothing left to release
             }
-        });
+            this.resourceLoader = null;
+        }
+        long start = System.nanoTime();
+        progressStore.close();
+        metrics.record(Phase.PROGRESS_WRITING, start);
+        writeReportFiles();
+    }
+
+    /**
+     * Persists the progress and writes the configured reports and mappers as they are now, for runs that keep
+     * going, like watching, where {@link #close()} only comes at the end.
+     */
+    public synchronized void writeReports() {
+        long start = System.nanoTime();
+        progressStore.flush();
+        metrics.record(Phase.PROGRESS_WRITING, start);
+        writeReportFiles();
+    }
+
+    private void writeReportFiles() {
+        options.getPathToMetricsReport()
+                .map(path -> Shards.getShardPath(path, options.getShardIndex(), options.getShardCount()))
+                .ifPresent(this::writeMetricsReport);
+        options.getPathToCostReport()
+                .map(path -> Shards.getShardPath(path, options.getShardIndex(), options.getShardCount()))
+                .ifPresent(this::writeCostReport);
+        options.getPathToGeneratedSources().ifPresent(this::writeGeneratedSources);
+    }
+
+    private void closeClassLoader() {
+        if(this.customClassLoader != null){
+            metrics.addClassScanningNanos(this.customClassLoader.getScanNanos());
+            this.customClassLoader.close();
+            this.customClassLoader = null;
+            this.metadataPropertyResolver = null;
+        }
+    }
+
+    /**
+     * Drops the class loader together with every class and property resolved through it, so the following
+     * verifications see the classes as they are on disk now. A kept class index only rescans what changed.
+     */
+    public synchronized void reloadClasses() {
+        closeClassLoader();
+        propertyResolver.clear();
+        verdicts.clear();
+    }
+
+    /**
+     * Forgets the verdicts of the mappings verified so far, so the next verification checks every mapping again
+     * while the classes and properties stay resolved.
+     */
+    void clearVerdicts() {
+        verdicts.clear();
+    }
+
+    /**
+     * @return whether the file was verified successfully before and neither it nor any of the classes it refers to
+     * changed since
+     */
+    public boolean isUpToDate(String pathToXmlResource) throws URISyntaxException, IOException {
+        FileFingerprint previous = progressStore.get(pathToXmlResource).orElse(null);
+        MappingResource resource = getMappingResource(pathToXmlResource);
+        return previous != null && resource.exists()
+                && previous.hasSameSizeAndLastModified(resource.getSize(), resource.getLastModified())
+                && !haveReferencedClassesChanged(previous);
+    }
+
+    private void writeMetricsReport(String pathToMetricsReport){
+        try {
+            metrics.writeJson(Paths.get(pathToMetricsReport));
+        } catch (IOException e) {
+            System.out.printf("DozerMappingVerification: could not write metrics report to %s.%n", pathToMetricsReport);
+        }
+    }
+
+    private void writeCostReport(String pathToCostReport){
+        try {
+            costAnalysis.writeJson(Paths.get(pathToCostReport));
+            System.out.printf("DozerMappingVerification: ranked %d mappings by runtime cost in %s.%n",
+                    costAnalysis.getRanking().size(), pathToCostReport);
+        } catch (IOException e) {
+            System.out.printf("DozerMappingVerification: could not write cost report to %s.%n", pathToCostReport);
+        }
+    }
+
+    // sharded runs generate into the same directory, every mapping file belongs to one shard only, and every shard
+    // keeps its own manifest of what it generated
+    private void writeGeneratedSources(String pathToGeneratedSources){
+        try {
+            Path manifest = Paths.get(pathToGeneratedSources).resolve(
+                    Shards.getShardPath(GENERATED_SOURCES_MANIFEST, options.getShardIndex(), options.getShardCount()));
+            int written = mapperGenerator.writeSources(Paths.get(pathToGeneratedSources), manifest);
+            System.out.printf("DozerMappingVerification: generated %d mappers in %s, %d changed.%n",
+                    mapperGenerator.getSources().size(), pathToGeneratedSources, written);
+            for(String notGenerated: mapperGenerator.getNotGenerated()){
+                System.out.printf("DozerMappingVerification: no mapper generated for %s.%n", notGenerated);
+            }
+        } catch (IOException e) {
+            System.out.printf("DozerMappingVerification: could not generate mappers in %s.%n", pathToGeneratedSources);
+        }
+    }
+
+    // the cost of a mapping is only estimated, and its mapper generated, once it verified: what they need is
+    // resolved by then
+    private void analyzeVerified(Mapping mapping, Configuration configuration, String pathToXmlResource){
+        if(costAnalysis != null){
+            boolean wildcardByDefault = configuration == null || configuration.isWildcard() == null || configuration.isWildcard();
+            costAnalysis.analyze(mapping, wildcardByDefault, pathToXmlResource, getCustomClassLoader());
+        }
+        if(mapperGenerator != null){
+            mapperGenerator.generate(mapping, configuration, pathToXmlResource, getCustomClassLoader());
+        }
+    }
+
+    // the cost report ranks, and the generated mappers cover, every mapping of the run, not only the ones that
+    // changed: a skipped file is read again and analyzed without being verified
+    private void analyzeSkipped(MappingResource resource, String pathToXmlResource, FileMetrics fileMetrics) throws IOException, JAXBException {
+        if(costAnalysis == null && mapperGenerator == null) { return; }
+
+        long start = System.nanoTime();
+        Mappings mappings;
+        try(InputStream in = new BufferedInputStream(resource.open())) {
+            mappings = mapperGenerator == null ? new LeanMappingReader().read(in) : (Mappings) getUnmarshaller().unmarshal(in);
+        }
+        fileMetrics.record(Phase.PARSING, start);
+        for(Mapping mapping: mappings.getMapping()){
+            analyzeVerified(mapping, mappings.getConfiguration(), pathToXmlResource);
+        }
+    }
+
+    // the lean reader leaves out what the generator needs to see to know a mapping is left to Dozer, mapping type,
+    // map-id, hints, field-excludes and the like, generating mappers takes the full JAXB model
+    private boolean isLeanParsingEnabled(){
+        return options.isLeanParsingEnabled() && mapperGenerator == null;
     }
 
     public void verify(String pathToXmlResource) throws ParserConfigurationException, SAXException, IOException, JAXBException, URISyntaxException, NoSuchAlgorithmException {
-        Mappings mappings = getMappingsForFile(pathToXmlResource);
-        String checkSum = getChecksum(mappings);
-        if(processed.containsKey(pathToXmlResource) && processed.get(pathToXmlResource).equals(checkSum)){
-            System.out.printf("DozerMappingVerification: no changes to %s since last check, skipping.%n", pathToXmlResource);
+        verify(pathToXmlResource, System.out);
+    }
+
+    private void verify(String pathToXmlResource, PrintStream out) throws ParserConfigurationException, SAXException, IOException, JAXBException, URISyntaxException, NoSuchAlgorithmException {
+        FileMetrics fileMetrics = metrics.startFile(pathToXmlResource);
+        Outcome outcome = Outcome.FAILED;
+        try {
+            outcome = verify(pathToXmlResource, out, fileMetrics);
+        } finally {
+            metrics.finish(fileMetrics, outcome);
+        }
+    }
+
+    private Outcome verify(String pathToXmlResource, PrintStream out, FileMetrics fileMetrics) throws ParserConfigurationException, SAXException, IOException, JAXBException, URISyntaxException, NoSuchAlgorithmException {
+        long start = System.nanoTime();
+        MappingResource resource = getMappingResource(pathToXmlResource);
+        long size = resource.getSize();
+        long lastModified = resource.getLastModified();
+        FileFingerprint previous = progressStore.get(pathToXmlResource).orElse(null);
+        String checkSum = previous != null && previous.hasSameSizeAndLastModified(size, lastModified) ?
+                previous.getHash() : resource.getChecksum();
+        boolean sameContent = previous != null && previous.hasSameContent(size, checkSum);
+        boolean classesChanged = sameContent && haveReferencedClassesChanged(previous);
+        fileMetrics.record(Phase.FINGERPRINTING, start);
+        // a file verified again, while watching, replaces what it added to the reports before
+        if(costAnalysis != null){
+            costAnalysis.forget(pathToXmlResource);
+        }
+        if(mapperGenerator != null){
+            mapperGenerator.startFile(pathToXmlResource);
+        }
+        if(sameContent){
+            if(classesChanged){
+                out.printf("DozerMappingVerification: classes used by %s changed since last check, verifying again.%n", pathToXmlResource);
+            } else {
+                if(!previous.hasSameSizeAndLastModified(size, lastModified)) {
+                    // only touched, remember the new modification time so the hash is not needed next time
+                    start = System.nanoTime();
+                    progressStore.put(pathToXmlResource, previous.withSizeAndLastModified(size, lastModified));
+                    fileMetrics.record(Phase.PROGRESS_WRITING, start);
+                }
+                out.printf("DozerMappingVerification: no changes to %s since last check, skipping.%n", pathToXmlResource);
+                analyzeSkipped(resource, pathToXmlResource, fileMetrics);
+                return Outcome.SKIPPED;
+            }
+        }
+
+        MappingVerification methods = new DeduplicatingVerification(verdicts, verdictStatistics, verificationOut -> options.isMetadataOnlyVerificationEnabled()
+                ? new MetadataVerificationMethods(getMetadataPropertyResolver(), options.isCaseInsensitiveFieldMatchingAllowed(), options.isIgnoringErrorsAllowed(), verificationOut, fileMetrics)
+                : new VerificationMethods(getCustomClassLoader(), options.isCaseInsensitiveFieldMatchingAllowed(), options.isIgnoringErrorsAllowed(), verificationOut, propertyResolver, fileMetrics),
+                out, fileMetrics);
+        if(options.isStreamingEnabled()){
+            start = System.nanoTime();
+            long verifying = fileMetrics.getPhaseNanos(Phase.CLASS_RESOLUTION, Phase.FIELD_RESOLUTION, Phase.CONVERTER_CHECKS);
+            MappingReader reader = isLeanParsingEnabled() ? new LeanMappingReader() : new StreamingMappingReader(getUnmarshaller());
+            // the configuration comes before the mappings, it tells whether they map by wildcard
+            Configuration[] fileConfiguration = new Configuration[1];
+            try(InputStream in = new BufferedInputStream(resource.open())) {
+                reader.read(in,
+                        configuration -> {
+                            fileConfiguration[0] = configuration;
+                            methods.verifyConfiguration(configuration, pathToXmlResource);
+                        },
+                        mapping -> {
+                            methods.verifyMappings(Collections.singletonList(mapping), pathToXmlResource);
+                            analyzeVerified(mapping, fileConfiguration[0], pathToXmlResource);
+                        });
+            } finally {
+                // reading and verifying are interleaved, whatever was not spent verifying was spent reading
+                verifying = fileMetrics.getPhaseNanos(Phase.CLASS_RESOLUTION, Phase.FIELD_RESOLUTION, Phase.CONVERTER_CHECKS) - verifying;
+                fileMetrics.add(Phase.PARSING, System.nanoTime() - start - verifying);
+            }
+        } else {
+            start = System.nanoTime();
+            Mappings mappings;
+            if(isLeanParsingEnabled()){
+                try(InputStream in = new BufferedInputStream(resource.open())) {
+                    mappings = new LeanMappingReader().read(in);
+                }
+            } else {
+                try(InputStream in = new BufferedInputStream(resource.open())) {
+                    mappings = (Mappings) getUnmarshaller().unmarshal(in);
+                }
+            }
+            fileMetrics.record(Phase.PARSING, start);
+            methods.verifyMappings(mappings.getMapping(), pathToXmlResource);
+            methods.verifyConfiguration(mappings.getConfiguration(), pathToXmlResource);
+            for(Mapping mapping: mappings.getMapping()){
+                analyzeVerified(mapping, mappings.getConfiguration(), pathToXmlResource);
+            }
+        }
+        start = System.nanoTime();
+        FileFingerprint fingerprint = new FileFingerprint(size, lastModified, checkSum, getClassFingerprints(methods.getReferencedClasses()));
+        fileMetrics.record(Phase.FINGERPRINTING, start);
+        start = System.nanoTime();
+        progressStore.put(pathToXmlResource, fingerprint);
+        fileMetrics.record(Phase.PROGRESS_WRITING, start);
+        out.printf("DozerMappingVerification: %s successfully verified.%n", pathToXmlResource);
+        return Outcome.VERIFIED;
+    }
+
+    /**
+     * Collects the packages of all classes named in the mapping files below the given directory, to restrict the
+     * classpath scan to when {@link Options#isScanRestrictedToReferencedPackages()} is set. Needs to be done before
+     * walking the directory; once the classpath has been scanned newly collected packages are not picked up anymore.
+     */
+    public void collectReferencedPackages(Path directory) throws IOException {
+        if(!options.isScanRestrictedToReferencedPackages()) { return; }
+
+        List<Path> mappingFiles = new ArrayList<>();
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                return !dir.equals(directory) && fileFilter.isExcludedDirectory(directory.relativize(dir)) ?
+                        FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if(attrs.isRegularFile() && fileFilter.isIncluded(directory.relativize(file))){
+                    mappingFiles.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        for(Path file: mappingFiles){
+            addReferencedPackages(file);
+        }
+    }
+
+    private void addReferencedPackages(Path file) throws IOException {
+        if(!MappingSniffer.isMappingFile(file)) { return; }
+        try(InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            addReferencedPackages(in);
+        }
+    }
+
+    private void addReferencedPackages(InputStream in) throws IOException {
+        Set<String> classNames = new HashSet<>();
+        try {
+            new LeanMappingReader().read(in,
+                    configuration -> {
+                        if(configuration.getCustomConverters() == null) { return; }
+                        for(ConverterType converter: configuration.getCustomConverters().getConverter()){
+                            classNames.add(converter.getType());
+                            classNames.add(converter.getClassA() == null ? null : converter.getClassA().getContent());
+                            classNames.add(converter.getClassB() == null ? null : converter.getClassB().getContent());
+                        }
+                    },
+                    mapping -> {
+                        classNames.add(mapping.getClassA() == null ? null : mapping.getClassA().getContent());
+                        classNames.add(mapping.getClassB() == null ? null : mapping.getClassB().getContent());
+                        mapping.getFieldOrFieldExclude().stream().filter(f -> f instanceof Field)
+                                .forEach(f -> classNames.add(((Field) f).getCustomConverter()));
+                    });
+        } catch (JAXBException e) {
+            // not a mapping file, nothing to scan for
             return;
         }
+        synchronized (referencedPackages) {
+            classNames.stream().filter(Objects::nonNull).map(String::trim)
+                    .filter(className -> className.lastIndexOf('.') > 0)
+                    .map(className -> className.substring(0, className.lastIndexOf('.')))
+                    .forEach(referencedPackages::add);
+        }
+    }
+
+    private boolean haveReferencedClassesChanged(FileFingerprint previous){
+        return previous.getClassFingerprints().entrySet().stream()
+                .anyMatch(entry -> !getCustomClassLoader().getFingerprint(entry.getKey()).orElse("").equals(entry.getValue()));
+    }
+
+    private Map<String, String> getClassFingerprints(Set<String> classNames){
+        Map<String, String> fingerprints = new HashMap<>();
+        for(String className: classNames){
+            fingerprints.put(className, getCustomClassLoader().getFingerprint(className).orElse(""));
+        }
+        return fingerprints;
+    }
 
-        VerificationMethods methods = new VerificationMethods(getCustomClassLoader(), options.isCaseInsensitiveFieldMatchingAllowed(), options.isIgnoringErrorsAllowed());
-        methods.verifyMappings(mappings.getMapping(), pathToXmlResource);
-        methods.verifyConfiguration(mappings.getConfiguration(), pathToXmlResource);
-        processed.put(pathToXmlResource, checkSum);
-        savePreviouslyProcessedFiles();
-        System.out.printf("DozerMappingVerification: %s successfully verified.%n", pathToXmlResource);
+    private boolean isInShard(String pathToXmlResource){
+        return Shards.contains(options.getShardIndex(), options.getShardCount(), pathToXmlResource);
     }
 
-    public static String getChecksum(Serializable object) throws IOException, NoSuchAlgorithmException {
-        try(ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+    /**
+     * Verifies all given mapping files, using the configured number of workers.
+     * Output is reported per file in the order the files were given, and when several files fail
+     * the failure of the first one in that order is thrown. When sharded only the files of this shard are verified.
+     */
+    public void verifyAll(List<String> pathsToXmlResources) throws ParserConfigurationException, SAXException, IOException, JAXBException, URISyntaxException, NoSuchAlgorithmException {
+        pathsToXmlResources = pathsToXmlResources.stream().filter(this::isInShard).collect(Collectors.toList());
+        if(options.isScanRestrictedToReferencedPackages()){
+            for(String pathToXmlResource: pathsToXmlResources){
+                try(InputStream in = new BufferedInputStream(getMappingResource(pathToXmlResource).open())) {
+                    addReferencedPackages(in);
+                }
+            }
+        }
+        if(!isParallel()){
+            for(String pathToXmlResource: pathsToXmlResources){
+                verify(pathToXmlResource);
+            }
+            return;
+        }
 
-            oos.writeObject(object);
-            MessageDigest md = MessageDigest.getInstance("MD5");
-            byte[] digest = md.digest(baos.toByteArray());
-            return DatatypeConverter.printHexBinary(digest);
+        for(String pathToXmlResource: pathsToXmlResources){
+            submit(out -> verify(pathToXmlResource, out));
         }
+        awaitPendingVerifications();
     }
 
-    public Mappings getMappingsForFile(String path) throws URISyntaxException, JAXBException {
-        URI file = new URI(path);
-        return (Mappings) unmarshaller.unmarshal(new File(file));
+    /**
+     * Verifies the given mapping files, selected by the caller from the given directory, using the configured number
+     * of workers. The includes and excludes of the options are not applied, the selection is the caller's; shards are
+     * assigned by the path of a file relative to the directory, as when walking it. Just like when walking, xml files
+     * that are no mapping files are skipped. Output is reported per file in the order the files were given.
+     *
+     * @return the failure of every file that failed, in the order the files were given; empty when none failed
+     */
+    public Map<Path, Exception> verifyFiles(Path directory, List<Path> files) {
+        List<Path> inShard = files.stream().filter(file -> isInShard(getShardKey(directory, file))).collect(Collectors.toList());
+        Map<Path, Exception> failures = new LinkedHashMap<>();
+        if(!isParallel()){
+            for(Path file: inShard){
+                try {
+                    verifyVisitedFile(file, System.out);
+                } catch (RuntimeException e) {
+                    failures.put(file, e);
+                }
+            }
+            return failures;
+        }
+
+        List<Future<VerificationResult>> started = new ArrayList<>();
+        for(Path file: inShard){
+            started.add(start(out -> verifyVisitedFile(file, out)));
+        }
+        try {
+            for(int i = 0; i < started.size(); i++){
+                VerificationResult result = started.get(i).get();
+                System.out.print(result.getOutput());
+                if(result.getFailure() != null) {
+                    failures.put(inShard.get(i), result.getFailure());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BuildException("DozerMappingVerification: interrupted while waiting for verification results", e);
+        } catch (ExecutionException e) {
+            throw new BuildException(e.getCause().getMessage(), e.getCause());
+        } finally {
+            started.forEach(verification -> verification.cancel(true));
+        }
+        return failures;
+    }
+
+    /**
+     * Waits for the verifications started while walking a directory tree in parallel mode, reporting their
+     * output in the order in which the files were visited. Does nothing when verifying sequentially.
+     */
+    public void awaitPendingVerifications() throws ParserConfigurationException, SAXException, IOException, JAXBException, URISyntaxException, NoSuchAlgorithmException {
+        List<Future<VerificationResult>> toAwait;
+        synchronized (pendingVerifications) {
+            toAwait = new ArrayList<>(pendingVerifications);
+            pendingVerifications.clear();
+        }
+
+        try {
+            for (Future<VerificationResult> pendingVerification : toAwait) {
+                VerificationResult result = pendingVerification.get();
+                System.out.print(result.getOutput());
+                if (result.getFailure() != null) {
+                    rethrow(result.getFailure());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BuildException("DozerMappingVerification: interrupted while waiting for verification results", e);
+        } catch (ExecutionException e) {
+            throw new BuildException(e.getCause().getMessage(), e.getCause());
+        } finally {
+            toAwait.forEach(pendingVerification -> pendingVerification.cancel(true));
+        }
+    }
+
+    private void submit(VerificationTask task){
+        Future<VerificationResult> future = start(task);
+        synchronized (pendingVerifications) {
+            pendingVerifications.add(future);
+        }
+    }
+
+    private Future<VerificationResult> start(VerificationTask task){
+        return getExecutor().submit(() -> {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try (PrintStream out = new PrintStream(buffer, true)) {
+                try {
+                    task.run(out);
+                    return new VerificationResult(buffer.toString(), null);
+                } catch (Exception e) {
+                    return new VerificationResult(buffer.toString(), e);
+                }
+            }
+        });
+    }
+
+    private static void rethrow(Exception e) throws ParserConfigurationException, SAXException, IOException, JAXBException, URISyntaxException, NoSuchAlgorithmException {
+        if(e instanceof RuntimeException) { throw (RuntimeException) e; }
+        if(e instanceof ParserConfigurationException) { throw (ParserConfigurationException) e; }
+        if(e instanceof SAXException) { throw (SAXException) e; }
+        if(e instanceof IOException) { throw (IOException) e; }
+        if(e instanceof JAXBException) { throw (JAXBException) e; }
+        if(e instanceof URISyntaxException) { throw (URISyntaxException) e; }
+        if(e instanceof NoSuchAlgorithmException) { throw (NoSuchAlgorithmException) e; }
+        throw new BuildException(e.getMessage(), e);
+    }
+
+    @FunctionalInterface
+    private interface VerificationTask {
+        void run(PrintStream out) throws Exception;
+    }
+
+    private static final class VerificationResult {
+        private final String output;
+        private final Exception failure;
+
+        private VerificationResult(String output, Exception failure){
+            this.output = output;
+            this.failure = failure;
+        }
+
+        public String getOutput() {
+            return output;
+        }
+
+        public Exception getFailure() {
+            return failure;
+        }
+    }
+
+    /**
+     * Hashes the raw bytes of a file without reading it into memory at once, files of
+     * {@value #MEMORY_MAPPING_THRESHOLD} bytes or more are memory-mapped.
+     */
+    public static String getChecksum(Path file) throws IOException, NoSuchAlgorithmException {
+        MessageDigest md = MessageDigest.getInstance("MD5");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if(size >= MEMORY_MAPPING_THRESHOLD){
+                for(long position = 0; position < size; position += MEMORY_MAPPED_REGION_SIZE){
+                    md.update(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MEMORY_MAPPED_REGION_SIZE, size - position)));
+                }
+            } else {
+                ByteBuffer buffer = ByteBuffer.allocate(8192);
+                while(channel.read(buffer) != -1){
+                    buffer.flip();
+                    md.update(buffer);
+                    buffer.clear();
+                }
+            }
+        }
+        return DatatypeConverter.printHexBinary(md.digest());
+    }
+
+    /**
+     * @param path a file: or jar: URI, or the name of a classpath resource
+     */
+    public Mappings getMappingsForFile(String path) throws URISyntaxException, JAXBException, IOException {
+        try(InputStream in = new BufferedInputStream(getMappingResource(path).open())) {
+            return (Mappings) getUnmarshaller().unmarshal(in);
+        }
+    }
+
+    private static Unmarshaller getUnmarshaller() throws JAXBException {
+        Unmarshaller current = UNMARSHALLER.get();
+        if(current == null){
+            current = getJaxbContext().createUnmarshaller();
+            UNMARSHALLER.set(current);
+        }
+        return current;
+    }
+
+    static JAXBContext getJaxbContext() throws JAXBException {
+        JAXBContext context = jaxbContext;
+        if(context == null){
+            synchronized (Verifier.class){
+                context = jaxbContext;
+                if(context == null){
+                    context = JAXBContext.newInstance(Mappings.class);
+                    jaxbContext = context;
+                }
+            }
+        }
+        return context;
     }
 
     @Override
     public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
-        return FileVisitResult.CONTINUE;
+        if(walkedDirectory == null){
+            // the first directory of a walk is where it started, shards and globs are relative to it
+            walkedDirectory = dir;
+            return FileVisitResult.CONTINUE;
+        }
+        return dir.startsWith(walkedDirectory) && fileFilter.isExcludedDirectory(walkedDirectory.relativize(dir)) ?
+                FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
     }
 
     @Override
     public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
-        if(hasXmlExtension(file)){
-            try {
-                verify(file.toUri().toString());
-            } catch(ParserConfigurationException | IOException | SAXException | NoSuchAlgorithmException e) {
-                if(options.isIgnoringErrorsAllowed()) {
-                    System.out.println(e.getMessage());
-                } else {
-                    throw new BuildException(e.getMessage(), e);
-                }
-            } catch (URISyntaxException | JAXBException ignored) {
-                // URI should be fine for proper files and we only care for xml files that correspond to the dozer .xsd
+        if(fileFilter.isIncluded(relativeToWalkedDirectory(file)) && isInShard(getShardKey(file))){
+            if(isParallel()){
+                submit(out -> verifyVisitedFile(file, out));
+            } else {
+                verifyVisitedFile(file, System.out);
             }
         }
         return FileVisitResult.CONTINUE;
     }
-    private boolean hasXmlExtension(Path file){
-        return file != null && file.getFileName().toString().toLowerCase().endsWith(".xml");
+
+    private Path relativeToWalkedDirectory(Path file){
+        return walkedDirectory != null && file.startsWith(walkedDirectory) ? walkedDirectory.relativize(file) : file;
+    }
+
+    private String getShardKey(Path file){
+        return getShardKey(walkedDirectory, file);
+    }
+
+    private static String getShardKey(Path directory, Path file){
+        Path relative = directory != null && file.startsWith(directory) ? directory.relativize(file) : file;
+        return relative.toString().replace(File.separatorChar, '/');
+    }
+
+    private void verifyVisitedFile(Path file, PrintStream out){
+        try {
+            // most xml files in a source tree are no mapping files, telling them apart is cheaper than parsing them
+            if(!MappingSniffer.isMappingFile(file)) { return; }
+            verify(file.toUri().toString(), out);
+        } catch(ParserConfigurationException | IOException | SAXException | NoSuchAlgorithmException e) {
+            if(options.isIgnoringErrorsAllowed()) {
+                out.println(e.getMessage());
+            } else {
+                throw new BuildException(e.getMessage(), e);
+            }
+        } catch (URISyntaxException | JAXBException ignored) {
+            // URI should be fine for proper files and we only care for xml files that correspond to the dozer .xsd
+        }
     }
 
     @Override
@@ -132,6 +781,10 @@ public class Verifier implements FileVisitor<Path> {
 
     @Override
     public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+        if(dir.equals(walkedDirectory)){
+            // the walk is done, the next one may start elsewhere
+            walkedDirectory = null;
+        }
         if(exc == null){ return FileVisitResult.CONTINUE; }
 
         throw exc;
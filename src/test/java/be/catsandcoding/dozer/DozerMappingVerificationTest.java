@@ -6,11 +6,16 @@ import org.dozer.DozerBeanMapper;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 
 import javax.xml.bind.JAXBException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.URISyntaxException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Objects;
 
 
@@ -182,4 +187,98 @@ public class DozerMappingVerificationTest {
             Assertions.assertEquals(String.format("Problem with mapping%n%s [custom-converter]: %s does not have the correct convertTo method", path, notFound), e.getCause().getMessage());
         }
     }
+
+    @Test
+    public void verifyAll_parallel_happyPath() throws Exception {
+        try(Verifier parallelVerifier = new Verifier(new Options().withNumberOfWorkers(4))) {
+            parallelVerifier.verifyAll(Arrays.asList(
+                    getAbsolutePath("be/catsandcoding/dozer/mappings/SuccessMapping.xml"),
+                    getAbsolutePath("be/catsandcoding/dozer/mappings/MainConfig.xml")));
+        }
+    }
+
+    @Test
+    public void verifyAll_parallel_failureOfFirstFileInOrderIsReported() throws Exception {
+        String classANotFound = getAbsolutePath("be/catsandcoding/dozer/mappings/FailureMappingClassANotFound.xml");
+        String classBNotFound = getAbsolutePath("be/catsandcoding/dozer/mappings/FailureMappingClassBNotFound.xml");
+        try(Verifier parallelVerifier = new Verifier(new Options().withNumberOfWorkers(4))) {
+            BuildException actual = Assertions.assertThrows(BuildException.class, () -> parallelVerifier.verifyAll(Arrays.asList(
+                    getAbsolutePath("be/catsandcoding/dozer/mappings/SuccessMapping.xml"), classBNotFound, classANotFound)));
+            Assertions.assertEquals(String.format("Problem with mapping%n%s [class-b]: %s could not be instantiated",
+                    classBNotFound, "be.catsandcoding.dozer.mappings.NotFound"), actual.getMessage());
+        }
+    }
+
+    @Test
+    public void verifyServiceMappings_streaming_failure_fieldB_notFound() throws Exception {
+        String path = getAbsolutePath("be/catsandcoding/dozer/mappings/FailureMappingFieldBNotFound.xml");
+        try(Verifier streamingVerifier = new Verifier(new Options().withStreamingEnabled(true))) {
+            streamingVerifier.verify(getAbsolutePath("be/catsandcoding/dozer/mappings/SuccessMapping.xml"));
+            streamingVerifier.verify(getAbsolutePath("be/catsandcoding/dozer/mappings/MainConfig.xml"));
+            BuildException actual = Assertions.assertThrows(BuildException.class, () -> streamingVerifier.verify(path));
+            Assertions.assertEquals(String.format("Problem with mapping%n%s [class-b]: %s does not have the necessary field %s",
+                    path, "be.catsandcoding.dozer.mappings.Success", "notFound"), actual.getMessage());
+        }
+    }
+
+    @Test
+    public void verifyServiceMappings_leanParsing_failure_converterWrongToType() throws Exception {
+        String path = getAbsolutePath("be/catsandcoding/dozer/mappings/FailureMappingConverterWrongToType.xml");
+        try(Verifier leanVerifier = new Verifier(new Options().withLeanParsingEnabled(true))) {
+            leanVerifier.verify(getAbsolutePath("be/catsandcoding/dozer/mappings/SuccessMapping.xml"));
+            leanVerifier.verify(getAbsolutePath("be/catsandcoding/dozer/mappings/MainConfig.xml"));
+            BuildException actual = Assertions.assertThrows(BuildException.class, () -> leanVerifier.verify(path));
+            Assertions.assertEquals(String.format("Problem with mapping%n%s [custom-converter]: %s does not have the correct convertTo method",
+                    path, "be.catsandcoding.dozer.mappings.WrongToParameterConverter"), actual.getMessage());
+        }
+    }
+
+    @Test
+    public void verifyAll_scanRestrictedToReferencedPackages_success() throws Exception {
+        try(Verifier restrictedVerifier = new Verifier(new Options().withScanRestrictedToReferencedPackages(true))) {
+            restrictedVerifier.verifyAll(Arrays.asList(getAbsolutePath("be/catsandcoding/dozer/mappings/SuccessMapping.xml"),
+                    getAbsolutePath("be/catsandcoding/dozer/mappings/MainConfig.xml")));
+        }
+    }
+
+    // metadata is only available for classes on the configured classpath, not for those of the context class loader
+    private Options metadataOnlyOptions() throws URISyntaxException {
+        String testClasses = Paths.get(getClass().getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+        return new Options().withClassPathDirectories(Collections.singletonList(testClasses))
+                .withMetadataOnlyVerificationEnabled(true);
+    }
+
+    @Test
+    public void verifyAll_metadataOnly_success() throws Exception {
+        try(Verifier metadataVerifier = new Verifier(metadataOnlyOptions())) {
+            metadataVerifier.verifyAll(Arrays.asList(getAbsolutePath("be/catsandcoding/dozer/mappings/SuccessMapping.xml"),
+                    getAbsolutePath("be/catsandcoding/dozer/mappings/MainConfig.xml")));
+            Assertions.assertEquals(0, metadataVerifier.getMetrics().getCaches().get("classes").getMisses());
+        }
+    }
+
+    @Test
+    public void verifyAll_metadataOnlyScanRestrictedToReferencedPackages_nestedPathAcrossPackages_success() throws Exception {
+        try(Verifier metadataVerifier = new Verifier(metadataOnlyOptions().withScanRestrictedToReferencedPackages(true))) {
+            metadataVerifier.verifyAll(Collections.singletonList(
+                    getAbsolutePath("be/catsandcoding/dozer/mappings/SuccessMappingAcrossPackages.xml")));
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "FailureMappingClassANotFound.xml|[class-a]: be.catsandcoding.dozer.mappings.NotFound could not be instantiated",
+            "FailureMappingFieldANotFound.xml|[class-a]: be.catsandcoding.dozer.mappings.PreSuccess does not have the necessary field notFound",
+            "FailureMappingFieldBNotFound.xml|[class-b]: be.catsandcoding.dozer.mappings.Success does not have the necessary field notFound",
+            "FailureMappingConverterNotFound.xml|[custom-converter]: be.catsandcoding.dozer.NotFound could not be instantiated",
+            "FailureMappingConverterNotDozerConverter.xml|[custom-converter]: java.lang.String is not an instance of org.dozer.DozerConverter",
+            "FailureMappingConverterWrongFromType.xml|[custom-converter]: be.catsandcoding.dozer.mappings.WrongFromParameterConverter does not have the correct convertTo method",
+            "FailureMappingConverterWrongToType.xml|[custom-converter]: be.catsandcoding.dozer.mappings.WrongToParameterConverter does not have the correct convertTo method"})
+    public void verify_metadataOnly_sameFailuresAsLoadingClasses(String file, String problem) throws Exception {
+        String path = getAbsolutePath("be/catsandcoding/dozer/mappings/" + file);
+        try(Verifier metadataVerifier = new Verifier(metadataOnlyOptions())) {
+            BuildException actual = Assertions.assertThrows(BuildException.class, () -> metadataVerifier.verify(path));
+            Assertions.assertEquals(String.format("Problem with mapping%n%s %s", path, problem), actual.getMessage());
+        }
+    }
 }
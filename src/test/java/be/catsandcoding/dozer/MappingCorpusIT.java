@@ -0,0 +1,89 @@
+package be.catsandcoding.dozer;
+
+import be.catsandcoding.dozer.components.VerificationMetrics;
+import be.catsandcoding.dozer.components.Verifier;
+import be.catsandcoding.dozer.generator.MappingCorpusGenerator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.xml.XMLConstants;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Objects;
+
+public class MappingCorpusIT {
+    @TempDir
+    static Path tempDir;
+
+    private static MappingCorpusGenerator.Corpus corpus;
+
+    @BeforeAll
+    public static void generate() throws Exception {
+        corpus = new MappingCorpusGenerator()
+                .withNumberOfFiles(20)
+                .withMappingsPerFile(100)
+                .withFieldsPerMapping(8)
+                .withNestingDepth(3)
+                .withConverterDensity(0.25)
+                .generate(tempDir);
+    }
+
+    private Options options(){
+        return new Options().withClassPathDirectories(Collections.singletonList(corpus.getClassesDirectory().toString()));
+    }
+
+    @Test
+    public void generatedMappings_areValidAgainstTheSchema() throws Exception {
+        Validator validator = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI)
+                .newSchema(Objects.requireNonNull(Thread.currentThread().getContextClassLoader().getResource("dozer/beanmapping.xsd")))
+                .newValidator();
+        for(Path mappingFile: corpus.getMappingFiles()){
+            validator.validate(new StreamSource(mappingFile.toFile()));
+        }
+    }
+
+    @Test
+    public void verifyAll_sequential() throws Exception {
+        try(Verifier verifier = new Verifier(options())) {
+            verifier.verifyAll(corpus.getMappingFileUris());
+        }
+    }
+
+    @Test
+    public void verifyAll_parallelAndStreaming() throws Exception {
+        try(Verifier verifier = new Verifier(options().withNumberOfWorkers(0).withStreamingEnabled(true))) {
+            verifier.verifyAll(corpus.getMappingFileUris());
+        }
+    }
+
+    @Test
+    public void verify_walkingTheMappingDirectory_scanRestrictedToReferencedPackages() throws Exception {
+        try(Verifier verifier = new Verifier(options().withScanRestrictedToReferencedPackages(true).withLeanParsingEnabled(true))) {
+            verifier.collectReferencedPackages(corpus.getMappingDirectory());
+            Files.walkFileTree(corpus.getMappingDirectory(), verifier);
+            assertEveryMappingFileVerified(verifier);
+        }
+    }
+
+    @Test
+    public void verify_walkingTheMappingDirectory() throws Exception {
+        try(Verifier verifier = new Verifier(options().withNumberOfWorkers(4))) {
+            Files.walkFileTree(corpus.getMappingDirectory(), verifier);
+            verifier.awaitPendingVerifications();
+            assertEveryMappingFileVerified(verifier);
+        }
+    }
+
+    // the walk finds the mapping files itself, none of them may be skipped as not being a mapping file
+    private static void assertEveryMappingFileVerified(Verifier verifier){
+        Assertions.assertEquals(20, corpus.getMappingFiles().size());
+        Assertions.assertEquals(corpus.getMappingFiles().size(), verifier.getMetrics().getCount(VerificationMetrics.Outcome.VERIFIED));
+        Assertions.assertEquals(0, verifier.getMetrics().getCount(VerificationMetrics.Outcome.FAILED));
+    }
+}
@@ -0,0 +1,13 @@
+package be.catsandcoding.dozer.charms;
+
+public class Charm {
+    private boolean lucky;
+
+    public boolean isLucky() {
+        return lucky;
+    }
+
+    public void setLucky(boolean lucky) {
+        this.lucky = lucky;
+    }
+}
@@ -0,0 +1,13 @@
+package be.catsandcoding.dozer.charms;
+
+public class Clover {
+    private Integer leaves = 4;
+
+    public Integer getLeaves() {
+        return leaves;
+    }
+
+    public void setLeaves(Integer leaves) {
+        this.leaves = leaves;
+    }
+}
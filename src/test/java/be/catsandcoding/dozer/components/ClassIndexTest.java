@@ -0,0 +1,79 @@
+package be.catsandcoding.dozer.components;
+
+import be.catsandcoding.dozer.mappings.PreSuccess;
+import be.catsandcoding.dozer.mappings.Success;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class ClassIndexTest {
+    private static final String MAPPINGS = "be/catsandcoding/dozer/mappings/";
+
+    @TempDir
+    Path tempDir;
+
+    private Path testClasses() throws URISyntaxException {
+        return Paths.get(getClass().getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    private void copyClassFile(Class<?> clazz, Path entry) throws URISyntaxException, IOException {
+        Path target = entry.resolve(MAPPINGS + clazz.getSimpleName() + ".class");
+        Files.createDirectories(target.getParent());
+        Files.copy(testClasses().resolve(MAPPINGS + clazz.getSimpleName() + ".class"), target);
+    }
+
+    @Test
+    public void load_unchangedClasspath_readFromFileWithoutScanning() throws Exception {
+        Path file = tempDir.resolve("progress.classes");
+        List<String> paths = Collections.singletonList(testClasses().toString());
+
+        Assertions.assertEquals(1, ClassIndex.load(file, paths, Collections.emptyList()).getRescannedEntries());
+        ClassIndex reloaded = ClassIndex.load(file, paths, Collections.emptyList());
+
+        Assertions.assertEquals(0, reloaded.getRescannedEntries());
+        Assertions.assertTrue(reloaded.contains(Success.class.getName()));
+        Assertions.assertEquals(Collections.singletonList(Success.class.getName()), reloaded.getHierarchy(Success.class.getName()));
+        Assertions.assertArrayEquals(Files.readAllBytes(testClasses().resolve(MAPPINGS + "Success.class")),
+                reloaded.readClassFile(Success.class.getName()));
+        Assertions.assertFalse(reloaded.contains("be.catsandcoding.dozer.mappings.NotFound"));
+    }
+
+    @Test
+    public void load_workingDirectoryEntry_notIndexed() throws Exception {
+        Path file = tempDir.resolve("progress.classes");
+        List<String> paths = Arrays.asList("", testClasses().toString());
+
+        ClassIndex index = ClassIndex.load(file, paths, Collections.emptyList());
+
+        Assertions.assertEquals(1, index.getRescannedEntries());
+        Assertions.assertTrue(index.contains(Success.class.getName()));
+        Assertions.assertEquals(0, ClassIndex.load(file, paths, Collections.emptyList()).getRescannedEntries());
+    }
+
+    @Test
+    public void load_changedEntry_onlyThatEntryRescanned() throws Exception {
+        Path file = tempDir.resolve("progress.classes");
+        Path extra = tempDir.resolve("extra");
+        copyClassFile(Success.class, extra);
+        List<String> paths = Arrays.asList(testClasses().toString(), extra.toString());
+        Assertions.assertEquals(2, ClassIndex.load(file, paths, Collections.emptyList()).getRescannedEntries());
+
+        copyClassFile(PreSuccess.class, extra);
+        ClassIndex reloaded = ClassIndex.load(file, paths, Collections.emptyList());
+
+        Assertions.assertEquals(1, reloaded.getRescannedEntries());
+        Assertions.assertTrue(reloaded.contains(PreSuccess.class.getName()));
+        // entries scanned for other packages are all scanned again
+        Assertions.assertEquals(2, ClassIndex.load(file, paths, Collections.singletonList("be.catsandcoding.dozer.mappings"))
+                .getRescannedEntries());
+    }
+}
@@ -0,0 +1,24 @@
+package be.catsandcoding.dozer.components;
+
+import be.catsandcoding.dozer.mappings.MazzeltjeToSuccessConvertor;
+import be.catsandcoding.dozer.mappings.Success;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ConverterMethodsTest {
+
+    @Test
+    public void converterMethods_dozerConverter_lookupsMatchSignatures() {
+        ConverterMethods methods = new ConverterMethods(MazzeltjeToSuccessConvertor.class);
+
+        Assertions.assertTrue(methods.isDozerConverter());
+        Assertions.assertTrue(methods.hasConvertTo(Integer.class, Boolean.class));
+        Assertions.assertTrue(methods.hasConvertFrom(Integer.class, Boolean.class));
+        Assertions.assertFalse(methods.hasConvertFrom(Boolean.class, Integer.class));
+    }
+
+    @Test
+    public void converterMethods_noConverter_notADozerConverter() {
+        Assertions.assertFalse(new ConverterMethods(Success.class).isDozerConverter());
+    }
+}
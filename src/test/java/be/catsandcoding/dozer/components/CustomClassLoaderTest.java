@@ -3,7 +3,14 @@ package be.catsandcoding.dozer.components;
 import be.catsandcoding.dozer.mapper.SuccessDozerBeanMapper;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 public class CustomClassLoaderTest {
@@ -24,4 +31,58 @@ public class CustomClassLoaderTest {
         Optional<Class<?>> actual = customClassLoader.loadClass(CLASS_NAME);
         Assertions.assertFalse(actual.isPresent());
     }
+
+    @Test
+    public void classLoader_repeatedLookups_resolvedFromSingleScan(){
+        String CLASS_NAME = "be.catsandcoding.dozer.mapper.SuccessDozerBeanMapper";
+        try(CustomClassLoader customClassLoader = new CustomClassLoader("be/catsandcoding/dozer")) {
+            Optional<Class<?>> first = customClassLoader.loadClass(CLASS_NAME);
+            Optional<Class<?>> second = customClassLoader.loadClass(CLASS_NAME);
+            Assertions.assertTrue(first.isPresent());
+            Assertions.assertSame(first.get(), second.get());
+            Assertions.assertFalse(customClassLoader.loadClass("be.catsandcoding.dozer.mapper.NopeNopeNope").isPresent());
+        }
+    }
+
+    @Test
+    public void getFingerprint_knownAndUnknownClasses(){
+        try(CustomClassLoader customClassLoader = new CustomClassLoader("be/catsandcoding/dozer")) {
+            Optional<String> preSuccess = customClassLoader.getFingerprint("be.catsandcoding.dozer.mappings.PreSuccess");
+            Optional<String> success = customClassLoader.getFingerprint("be.catsandcoding.dozer.mappings.Success");
+            Assertions.assertTrue(preSuccess.isPresent());
+            Assertions.assertTrue(success.isPresent());
+            Assertions.assertNotEquals(preSuccess.get(), success.get());
+            Assertions.assertFalse(customClassLoader.getFingerprint("be.catsandcoding.dozer.mapper.NopeNopeNope").isPresent());
+        }
+    }
+
+    @Test
+    public void classLoader_acceptedPackages_classesOutsideStillResolved(){
+        List<String> paths = Collections.singletonList("be/catsandcoding/dozer");
+        try(CustomClassLoader restricted = new CustomClassLoader(paths, Collections.singletonList("be.catsandcoding.dozer.mapper"));
+            CustomClassLoader unrestricted = new CustomClassLoader(paths)) {
+            Assertions.assertTrue(restricted.loadClass("be.catsandcoding.dozer.mapper.SuccessDozerBeanMapper").isPresent());
+            Assertions.assertTrue(restricted.loadClass("be.catsandcoding.dozer.mappings.PreSuccess").isPresent());
+            Assertions.assertEquals(unrestricted.getFingerprint("be.catsandcoding.dozer.mappings.PreSuccess"),
+                    restricted.getFingerprint("be.catsandcoding.dozer.mappings.PreSuccess"));
+        }
+    }
+
+    @Test
+    public void classLoader_classIndexFile_sameClassesAndFingerprintsAsScan(@TempDir Path tempDir) throws URISyntaxException {
+        String testClasses = Paths.get(getClass().getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+        List<String> paths = Collections.singletonList(testClasses);
+        Path classIndexFile = tempDir.resolve("progress.classes");
+        try(CustomClassLoader scanning = new CustomClassLoader(paths);
+            CustomClassLoader indexing = new CustomClassLoader(paths, Collections.emptyList(), false, classIndexFile)) {
+            Assertions.assertTrue(indexing.loadClass("be.catsandcoding.dozer.mappings.PreSuccess").isPresent());
+            Assertions.assertEquals(scanning.getFingerprint("be.catsandcoding.dozer.mappings.PreSuccess"),
+                    indexing.getFingerprint("be.catsandcoding.dozer.mappings.PreSuccess"));
+        }
+        Assertions.assertTrue(Files.exists(classIndexFile));
+        try(CustomClassLoader warm = new CustomClassLoader(paths, Collections.emptyList(), false, classIndexFile)) {
+            Assertions.assertTrue(warm.loadClass("be.catsandcoding.dozer.mapper.SuccessDozerBeanMapper").isPresent());
+            Assertions.assertFalse(warm.loadClass("be.catsandcoding.dozer.mapper.NopeNopeNope").isPresent());
+        }
+    }
 }
@@ -0,0 +1,50 @@
+package be.catsandcoding.dozer.components;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+public class FileProgressStoreTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void close_writesAllEntries_loadedByNextStore() {
+        Path file = tempDir.resolve("progress");
+        try(FileProgressStore store = new FileProgressStore(file)) {
+            store.put("file:/a.xml", new FileFingerprint(10, 20, "ABC", Collections.singletonMap("be.Bean", "DEF")));
+            store.put("file:/b.xml", new FileFingerprint(30, 40, "GHI", Collections.emptyMap()));
+        }
+
+        FileProgressStore reloaded = new FileProgressStore(file);
+        FileFingerprint a = reloaded.get("file:/a.xml").orElseThrow(AssertionError::new);
+        Assertions.assertEquals(10, a.getSize());
+        Assertions.assertEquals(20, a.getLastModified());
+        Assertions.assertEquals("ABC", a.getHash());
+        Assertions.assertEquals(Collections.singletonMap("be.Bean", "DEF"), a.getClassFingerprints());
+        Assertions.assertTrue(reloaded.get("file:/b.xml").isPresent());
+        Assertions.assertFalse(reloaded.get("file:/c.xml").isPresent());
+        Assertions.assertFalse(Files.exists(tempDir.resolve("progress.tmp")));
+    }
+
+    @Test
+    public void put_writesOnlyOnceABatchIsComplete() {
+        Path file = tempDir.resolve("progress");
+        FileProgressStore store = new FileProgressStore(file, 2);
+        store.put("file:/a.xml", new FileFingerprint(10, 20, "ABC", Collections.emptyMap()));
+        Assertions.assertFalse(Files.exists(file));
+
+        store.put("file:/b.xml", new FileFingerprint(30, 40, "GHI", Collections.emptyMap()));
+        Assertions.assertTrue(new FileProgressStore(file).get("file:/b.xml").isPresent());
+    }
+
+    @Test
+    public void load_unreadableFile_startsEmpty() throws Exception {
+        Path file = Files.write(tempDir.resolve("progress"), new byte[]{1, 2, 3});
+        Assertions.assertFalse(new FileProgressStore(file).get("file:/a.xml").isPresent());
+    }
+}
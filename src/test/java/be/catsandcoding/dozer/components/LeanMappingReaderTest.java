@@ -0,0 +1,96 @@
+package be.catsandcoding.dozer.components;
+
+import be.catsandcoding.dozer.generated.ConverterType;
+import be.catsandcoding.dozer.generated.Field;
+import be.catsandcoding.dozer.generated.FieldExclude;
+import be.catsandcoding.dozer.generated.Mapping;
+import be.catsandcoding.dozer.generated.Mappings;
+import be.catsandcoding.dozer.generated.Type;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import javax.xml.bind.JAXBException;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+public class LeanMappingReaderTest {
+    private InputStream resource(String path){
+        return Thread.currentThread().getContextClassLoader().getResourceAsStream(path);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SuccessMapping.xml", "MainConfig.xml", "FailureMappingConverterWrongToType.xml", "FailureMappingFieldBNotFound.xml"})
+    public void read_sameAsJaxbForTheVerifiedParts(String name) throws JAXBException {
+        String path = "be/catsandcoding/dozer/mappings/" + name;
+        Mappings expected = (Mappings) Verifier.getJaxbContext().createUnmarshaller().unmarshal(resource(path));
+        Mappings actual = new LeanMappingReader().read(resource(path));
+
+        Assertions.assertEquals(expected.getMapping().size(), actual.getMapping().size());
+        for(int i = 0; i < expected.getMapping().size(); i++){
+            Mapping expectedMapping = expected.getMapping().get(i);
+            Mapping actualMapping = actual.getMapping().get(i);
+            Assertions.assertEquals(expectedMapping.getClassA().getContent(), actualMapping.getClassA().getContent());
+            Assertions.assertEquals(expectedMapping.getClassB().getContent(), actualMapping.getClassB().getContent());
+            Assertions.assertEquals(expectedMapping.getFieldOrFieldExclude().size(), actualMapping.getFieldOrFieldExclude().size());
+            Assertions.assertEquals(expectedMapping.isWildcard(), actualMapping.isWildcard());
+            for(int j = 0; j < expectedMapping.getFieldOrFieldExclude().size(); j++){
+                Field expectedField = (Field) expectedMapping.getFieldOrFieldExclude().get(j);
+                Field actualField = (Field) actualMapping.getFieldOrFieldExclude().get(j);
+                Assertions.assertEquals(expectedField.getA().getContent(), actualField.getA().getContent());
+                Assertions.assertEquals(expectedField.getB().getContent(), actualField.getB().getContent());
+                Assertions.assertEquals(expectedField.getCustomConverter(), actualField.getCustomConverter());
+                Assertions.assertEquals(expectedField.getType(), actualField.getType());
+            }
+        }
+
+        Assertions.assertEquals(expected.getConfiguration() == null, actual.getConfiguration() == null);
+        if(expected.getConfiguration() != null){
+            Assertions.assertEquals(expected.getConfiguration().isWildcard(), actual.getConfiguration().isWildcard());
+            Assertions.assertEquals(expected.getConfiguration().getCustomConverters().getConverter().size(),
+                    actual.getConfiguration().getCustomConverters().getConverter().size());
+            for(int i = 0; i < expected.getConfiguration().getCustomConverters().getConverter().size(); i++){
+                ConverterType expectedConverter = expected.getConfiguration().getCustomConverters().getConverter().get(i);
+                ConverterType actualConverter = actual.getConfiguration().getCustomConverters().getConverter().get(i);
+                Assertions.assertEquals(expectedConverter.getType(), actualConverter.getType());
+                Assertions.assertEquals(expectedConverter.getClassA().getContent(), actualConverter.getClassA().getContent());
+                Assertions.assertEquals(expectedConverter.getClassB().getContent(), actualConverter.getClassB().getContent());
+            }
+        }
+    }
+
+    @Test
+    public void read_unusedElements_skipped() throws JAXBException {
+        String xml = "<mappings xmlns=\"http://dozer.sourceforge.net\"><configuration><stop-on-errors>true</stop-on-errors></configuration>"
+                + "<mapping map-id=\"m\"><class-a bean-factory=\"f\">A</class-a><class-b>B</class-b>"
+                + "<field-exclude><a>x</a><b>x</b></field-exclude>"
+                + "<field type=\"one-way\"><a>y</a><b>z</b><a-hint>java.lang.String</a-hint></field></mapping></mappings>";
+        Mappings actual = new LeanMappingReader().read(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+
+        Assertions.assertNull(actual.getConfiguration().getCustomConverters());
+        Assertions.assertEquals(2, actual.getMapping().get(0).getFieldOrFieldExclude().size());
+        Field field = (Field) actual.getMapping().get(0).getFieldOrFieldExclude().get(1);
+        Assertions.assertEquals("z", field.getB().getContent());
+    }
+
+    @Test
+    public void read_fieldExclude_keptForTheCostAnalysis() throws JAXBException {
+        String xml = "<mappings xmlns=\"http://dozer.sourceforge.net\"><mapping><class-a>A</class-a><class-b>B</class-b>"
+                + "<field-exclude type=\"one-way\"><a>x</a><b>y</b></field-exclude></mapping></mappings>";
+        Mappings actual = new LeanMappingReader().read(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+
+        FieldExclude exclude = (FieldExclude) actual.getMapping().get(0).getFieldOrFieldExclude().get(0);
+        Assertions.assertEquals("x", exclude.getA().getContent());
+        Assertions.assertEquals("y", exclude.getB().getContent());
+        Assertions.assertEquals(Type.ONE_WAY, exclude.getType());
+    }
+
+    @Test
+    public void read_otherXml_throwsJAXBException() {
+        String xml = "<project xmlns=\"http://maven.apache.org/POM/4.0.0\"><modelVersion>4.0.0</modelVersion></project>";
+        Assertions.assertThrows(JAXBException.class,
+                () -> new LeanMappingReader().read(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8))));
+    }
+}
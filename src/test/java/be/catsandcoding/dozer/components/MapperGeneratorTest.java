@@ -0,0 +1,145 @@
+package be.catsandcoding.dozer.components;
+
+import be.catsandcoding.dozer.Options;
+import be.catsandcoding.dozer.generated.Field;
+import be.catsandcoding.dozer.generated.FieldDefinition;
+import be.catsandcoding.dozer.generated.Mapping;
+import be.catsandcoding.dozer.mappings.Mazzeltje;
+import be.catsandcoding.dozer.mappings.PreSuccess;
+import be.catsandcoding.dozer.mappings.Success;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Objects;
+
+public class MapperGeneratorTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void close_generatedSourcesConfigured_mapperCompilesAndMaps() throws Exception {
+        Path generated = tempDir.resolve("generated");
+        String mapping = Objects.requireNonNull(Thread.currentThread().getContextClassLoader()
+                .getResource("be/catsandcoding/dozer/mappings/SuccessMapping.xml")).toURI().toString();
+        try(Verifier verifier = new Verifier(new Options().withPathToGeneratedSources(generated.toString()))) {
+            verifier.verify(mapping);
+        }
+
+        Path source = generated.resolve("be/catsandcoding/dozer/mappings/PreSuccessToSuccessMapper.java");
+        Assertions.assertTrue(Files.isRegularFile(source));
+        // the converter of the other mapping has no constructor without arguments, that mapping is left to Dozer
+        Assertions.assertFalse(Files.exists(generated.resolve("be/catsandcoding/dozer/mappings/MazzeltjeToSuccessMapper.java")));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assumptions.assumeTrue(compiler != null, "no compiler in this runtime");
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        int result = compiler.run(null, null, errors, "-classpath", System.getProperty("java.class.path"),
+                "-d", tempDir.toString(), source.toString());
+        Assertions.assertEquals(0, result, errors.toString());
+
+        try(URLClassLoader classLoader = new URLClassLoader(new URL[]{tempDir.toUri().toURL()}, getClass().getClassLoader())) {
+            Object mapper = classLoader.loadClass(PreSuccess.class.getPackage().getName() + ".PreSuccessToSuccessMapper").getDeclaredConstructor().newInstance();
+            PreSuccess preSuccess = new PreSuccess();
+            preSuccess.setCustomField(true);
+            Success success = (Success) mapper.getClass().getMethod("map", PreSuccess.class).invoke(mapper, preSuccess);
+            Assertions.assertTrue(success.isSuccess());
+        }
+    }
+
+    @Test
+    public void close_leanParsingEnabled_oneWayMappingHasNoReverse() throws Exception {
+        Path generated = tempDir.resolve("generated");
+        String mapping = Objects.requireNonNull(Thread.currentThread().getContextClassLoader()
+                .getResource("be/catsandcoding/dozer/mappings/SuccessMapping.xml")).toURI().toString();
+        try(Verifier verifier = new Verifier(new Options().withLeanParsingEnabled(true)
+                .withPathToGeneratedSources(generated.toString()))) {
+            verifier.verify(mapping);
+        }
+
+        String source = new String(Files.readAllBytes(generated.resolve("be/catsandcoding/dozer/mappings/PreSuccessToSuccessMapper.java")),
+                StandardCharsets.UTF_8);
+        Assertions.assertTrue(source.contains(" map("), source);
+        Assertions.assertFalse(source.contains("mapReverse"), source);
+    }
+
+    @Test
+    public void close_unchangedFileSkipped_mapperStillGenerated() throws Exception {
+        Path generated = tempDir.resolve("generated");
+        Options options = new Options().withPathToGeneratedSources(generated.toString())
+                .withPathToProgressKeepingFile(tempDir.resolve("progress").toString());
+        String mapping = Objects.requireNonNull(Thread.currentThread().getContextClassLoader()
+                .getResource("be/catsandcoding/dozer/mappings/SuccessMapping.xml")).toURI().toString();
+        try(Verifier verifier = new Verifier(options)) {
+            verifier.verify(mapping);
+        }
+        Path source = generated.resolve("be/catsandcoding/dozer/mappings/PreSuccessToSuccessMapper.java");
+        Files.delete(source);
+
+        try(Verifier verifier = new Verifier(options)) {
+            verifier.verify(mapping);
+            Assertions.assertEquals(1, verifier.getMetrics().getCount(VerificationMetrics.Outcome.SKIPPED));
+        }
+
+        Assertions.assertTrue(Files.isRegularFile(source));
+    }
+
+    @Test
+    public void close_mappingNoLongerGeneratable_staleMapperRemoved() throws Exception {
+        Path generated = tempDir.resolve("generated");
+        Path mappingFile = tempDir.resolve("Mapping.xml");
+        String xml = new String(Files.readAllBytes(Paths.get(Objects.requireNonNull(Thread.currentThread().getContextClassLoader()
+                .getResource("be/catsandcoding/dozer/mappings/SuccessMapping.xml")).toURI())), StandardCharsets.UTF_8);
+        Files.write(mappingFile, xml.getBytes(StandardCharsets.UTF_8));
+        Options options = new Options().withPathToGeneratedSources(generated.toString());
+        try(Verifier verifier = new Verifier(options)) {
+            verifier.verify(mappingFile.toUri().toString());
+        }
+        Path source = generated.resolve("be/catsandcoding/dozer/mappings/PreSuccessToSuccessMapper.java");
+        Assertions.assertTrue(Files.isRegularFile(source));
+
+        // a map-id is left to Dozer
+        Files.write(mappingFile, xml.replace("<mapping type=\"one-way\">", "<mapping type=\"one-way\" map-id=\"cancel\">")
+                .getBytes(StandardCharsets.UTF_8));
+        try(Verifier verifier = new Verifier(options)) {
+            verifier.verify(mappingFile.toUri().toString());
+        }
+
+        Assertions.assertFalse(Files.exists(source));
+    }
+
+    @Test
+    public void generate_typesDozerConverts_leftToDozer() {
+        Mapping mapping = new Mapping();
+        mapping.setClassA(new be.catsandcoding.dozer.generated.Class());
+        mapping.getClassA().setContent(Mazzeltje.class.getName());
+        mapping.setClassB(new be.catsandcoding.dozer.generated.Class());
+        mapping.getClassB().setContent(Success.class.getName());
+        Field field = new Field();
+        field.setA(new FieldDefinition());
+        field.getA().setContent("littleLuck");
+        field.setB(new FieldDefinition());
+        field.getB().setContent("success");
+        mapping.getFieldOrFieldExclude().add(field);
+
+        MapperGenerator generator = new MapperGenerator(false);
+        try(CustomClassLoader classLoader = new CustomClassLoader()) {
+            generator.generate(mapping, null, "Mapping.xml", classLoader);
+        }
+
+        Assertions.assertTrue(generator.getSources().isEmpty());
+        Assertions.assertEquals(1, generator.getNotGenerated().size());
+        Assertions.assertTrue(generator.getNotGenerated().get(0).contains("converted from java.lang.Integer to java.lang.Boolean"),
+                generator.getNotGenerated().get(0));
+    }
+}
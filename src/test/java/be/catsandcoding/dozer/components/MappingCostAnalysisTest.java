@@ -0,0 +1,109 @@
+package be.catsandcoding.dozer.components;
+
+import be.catsandcoding.dozer.Options;
+import be.catsandcoding.dozer.generated.Field;
+import be.catsandcoding.dozer.generated.FieldDefinition;
+import be.catsandcoding.dozer.generated.Mapping;
+import be.catsandcoding.dozer.mappings.Mazzeltje;
+import be.catsandcoding.dozer.mappings.MazzeltjeToSuccessConvertor;
+import be.catsandcoding.dozer.mappings.PreSuccess;
+import be.catsandcoding.dozer.mappings.Success;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+public class MappingCostAnalysisTest {
+    @TempDir
+    Path tempDir;
+
+    private static be.catsandcoding.dozer.generated.Class classOf(java.lang.Class<?> clazz){
+        be.catsandcoding.dozer.generated.Class generated = new be.catsandcoding.dozer.generated.Class();
+        generated.setContent(clazz.getName());
+        return generated;
+    }
+
+    private static Field field(String a, String b, String customConverter){
+        Field field = new Field();
+        field.setA(new FieldDefinition());
+        field.getA().setContent(a);
+        field.setB(new FieldDefinition());
+        field.getB().setContent(b);
+        field.setCustomConverter(customConverter);
+        return field;
+    }
+
+    @Test
+    public void analyze_convertersAndFieldAccess_scoredAndFlagged() {
+        Mapping mapping = new Mapping();
+        mapping.setClassA(classOf(Mazzeltje.class));
+        mapping.setClassB(classOf(Success.class));
+        mapping.setWildcard(false);
+        for(int i = 0; i < MappingCostAnalysis.HEAVY_CONVERTER_USE; i++){
+            mapping.getFieldOrFieldExclude().add(field("littleLuck", "success", MazzeltjeToSuccessConvertor.class.getName()));
+        }
+        Field accessible = field("failure", "failure", null);
+        accessible.getA().setIsAccessible(true);
+        mapping.getFieldOrFieldExclude().add(accessible);
+
+        MappingCostAnalysis analysis = new MappingCostAnalysis(new PropertyResolver(), false);
+        try(CustomClassLoader classLoader = new CustomClassLoader()) {
+            analysis.analyze(mapping, true, "Mapping.xml", classLoader);
+        }
+
+        MappingCostAnalysis.MappingCost cost = analysis.getRanking().get(0);
+        Assertions.assertEquals(4 * MappingCostAnalysis.FIELD_COST + 3 * MappingCostAnalysis.CONVERTER_COST
+                + MappingCostAnalysis.REFLECTIVE_ACCESS_COST, cost.getScore());
+        Assertions.assertEquals(4, cost.getFields());
+        Assertions.assertTrue(cost.getFindings().containsKey("heavy-converter-use"));
+        Assertions.assertTrue(cost.getFindings().containsKey("field-access-without-accessor"));
+        Assertions.assertFalse(cost.getFindings().containsKey("deep-field-path"));
+    }
+
+    @Test
+    public void close_costReportConfigured_mappingsRankedMostExpensiveFirst() throws Exception {
+        Path report = tempDir.resolve("cost.json");
+        String mapping = Objects.requireNonNull(Thread.currentThread().getContextClassLoader()
+                .getResource("be/catsandcoding/dozer/mappings/SuccessMapping.xml")).toURI().toString();
+        try(Verifier verifier = new Verifier(new Options().withPathToCostReport(report.toString()))) {
+            verifier.verify(mapping);
+        }
+
+        String json = new String(Files.readAllBytes(report), StandardCharsets.UTF_8);
+        int mazzeltje = json.indexOf("\"classA\": \"" + Mazzeltje.class.getName() + "\"");
+        int preSuccess = json.indexOf("\"classA\": \"" + PreSuccess.class.getName() + "\"");
+        Assertions.assertTrue(mazzeltje > 0 && preSuccess > mazzeltje, json);
+        Assertions.assertTrue(json.contains("{\"rank\": 1, \"score\": 7,"), json);
+    }
+
+    @Test
+    public void close_costReportWithUnchangedFilesSkipped_everyMappingStillRanked() throws Exception {
+        Path report = tempDir.resolve("cost.json");
+        Options options = new Options().withPathToCostReport(report.toString())
+                .withPathToProgressKeepingFile(tempDir.resolve("progress").toString());
+        String mapping = Objects.requireNonNull(Thread.currentThread().getContextClassLoader()
+                .getResource("be/catsandcoding/dozer/mappings/SuccessMapping.xml")).toURI().toString();
+        try(Verifier verifier = new Verifier(options)) {
+            verifier.verify(mapping);
+        }
+        String complete = new String(Files.readAllBytes(report), StandardCharsets.UTF_8);
+
+        try(Verifier verifier = new Verifier(options)) {
+            verifier.verify(mapping);
+            Assertions.assertEquals(1, verifier.getMetrics().getCount(VerificationMetrics.Outcome.SKIPPED));
+        }
+
+        Assertions.assertEquals(complete, new String(Files.readAllBytes(report), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void verifier_costReportWithMetadataOnlyVerification_rejected() {
+        Options options = new Options().withMetadataOnlyVerificationEnabled(true)
+                .withPathToCostReport(tempDir.resolve("cost.json").toString());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new Verifier(options));
+    }
+}
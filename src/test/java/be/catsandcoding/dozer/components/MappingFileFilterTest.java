@@ -0,0 +1,80 @@
+package be.catsandcoding.dozer.components;
+
+import be.catsandcoding.dozer.Options;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Objects;
+
+public class MappingFileFilterTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void isIncluded_noPatterns_onlyXmlFiles() {
+        MappingFileFilter filter = new MappingFileFilter(Collections.emptyList(), Collections.emptyList());
+
+        Assertions.assertTrue(filter.isIncluded(Paths.get("a/Mapping.XML")));
+        Assertions.assertFalse(filter.isIncluded(Paths.get("a/Mapping.java")));
+        Assertions.assertFalse(filter.isExcludedDirectory(Paths.get("target")));
+    }
+
+    @Test
+    public void isExcludedDirectory_excludeEndingInAnythingBelow_prunesTheDirectoryAtAnyDepth() {
+        MappingFileFilter filter = new MappingFileFilter(Collections.singletonList("dozer/**/*.xml"),
+                Arrays.asList("**/target/**", "**/.git"));
+
+        Assertions.assertTrue(filter.isExcludedDirectory(Paths.get("target")));
+        Assertions.assertTrue(filter.isExcludedDirectory(Paths.get("module/target")));
+        Assertions.assertTrue(filter.isExcludedDirectory(Paths.get(".git")));
+        Assertions.assertFalse(filter.isExcludedDirectory(Paths.get("dozer")));
+        Assertions.assertTrue(filter.isIncluded(Paths.get("dozer/orders/Mapping.xml")));
+        Assertions.assertFalse(filter.isIncluded(Paths.get("spring/Context.xml")));
+        Assertions.assertFalse(filter.isIncluded(Paths.get("dozer/target/Mapping.xml")));
+    }
+
+    @Test
+    public void walk_excludedDirectory_neitherVerifiedNorFailing() throws Exception {
+        Path source = Paths.get(Objects.requireNonNull(Thread.currentThread().getContextClassLoader()
+                .getResource("be/catsandcoding/dozer/mappings/")).toURI());
+        Path mappings = Files.createDirectories(tempDir.resolve("src"));
+        Files.copy(source.resolve("SuccessMapping.xml"), mappings.resolve("SuccessMapping.xml"));
+        Path target = Files.createDirectories(tempDir.resolve("target/classes"));
+        Files.copy(source.resolve("FailureMappingFieldBNotFound.xml"), target.resolve("FailureMappingFieldBNotFound.xml"));
+
+        Options options = new Options().withExcludes(Collections.singletonList("**/target/**"));
+        try(Verifier verifier = new Verifier(options)) {
+            Files.walkFileTree(tempDir, verifier);
+            verifier.awaitPendingVerifications();
+            Assertions.assertEquals(1, verifier.getMetrics().getCount(VerificationMetrics.Outcome.VERIFIED));
+            Assertions.assertEquals(0, verifier.getMetrics().getCount(VerificationMetrics.Outcome.FAILED));
+        }
+    }
+
+    @Test
+    public void walk_secondDirectoryWithSameVerifier_patternsRelativeToThatDirectory() throws Exception {
+        Path source = Paths.get(Objects.requireNonNull(Thread.currentThread().getContextClassLoader()
+                .getResource("be/catsandcoding/dozer/mappings/")).toURI());
+        Path first = Files.createDirectories(tempDir.resolve("first"));
+        Files.copy(source.resolve("SuccessMapping.xml"), first.resolve("SuccessMapping.xml"));
+        Path second = Files.createDirectories(tempDir.resolve("second"));
+        Files.copy(source.resolve("SuccessMapping.xml"), second.resolve("SuccessMapping.xml"));
+        Path generated = Files.createDirectories(second.resolve("generated"));
+        Files.copy(source.resolve("FailureMappingFieldBNotFound.xml"), generated.resolve("FailureMappingFieldBNotFound.xml"));
+
+        Options options = new Options().withExcludes(Collections.singletonList("generated/**"));
+        try(Verifier verifier = new Verifier(options)) {
+            Files.walkFileTree(first, verifier);
+            Files.walkFileTree(second, verifier);
+            verifier.awaitPendingVerifications();
+            Assertions.assertEquals(2, verifier.getMetrics().getCount(VerificationMetrics.Outcome.VERIFIED));
+            Assertions.assertEquals(0, verifier.getMetrics().getCount(VerificationMetrics.Outcome.FAILED));
+        }
+    }
+}
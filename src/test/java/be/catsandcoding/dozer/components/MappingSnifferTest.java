@@ -0,0 +1,45 @@
+package be.catsandcoding.dozer.components;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Objects;
+
+public class MappingSnifferTest {
+    @TempDir
+    Path tempDir;
+
+    private Path write(String name, String content) throws Exception {
+        return Files.write(tempDir.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void isMappingFile_dozerMappings_true() throws Exception {
+        Path mapping = Paths.get(Objects.requireNonNull(Thread.currentThread().getContextClassLoader()
+                .getResource("be/catsandcoding/dozer/mappings/SuccessMapping.xml")).toURI());
+
+        Assertions.assertTrue(MappingSniffer.isMappingFile(mapping));
+    }
+
+    @Test
+    public void isMappingFile_otherXml_false() throws Exception {
+        Assertions.assertFalse(MappingSniffer.isMappingFile(write("pom.xml",
+                "<?xml version=\"1.0\"?><project xmlns=\"http://maven.apache.org/POM/4.0.0\"><modelVersion>4.0.0</modelVersion></project>")));
+        Assertions.assertFalse(MappingSniffer.isMappingFile(write("context.xml",
+                "<!DOCTYPE beans PUBLIC \"-//SPRING//DTD BEAN//EN\" \"http://localhost:1/spring-beans.dtd\"><beans/>")));
+        Assertions.assertFalse(MappingSniffer.isMappingFile(write("other.xml", "<mappings/>")));
+    }
+
+    @Test
+    public void isMappingFile_rootBeyondSniffedBytes_leftToFullParse() throws Exception {
+        String comment = "<!--" + String.join("", Collections.nCopies(MappingSniffer.SNIFF_SIZE, "x")) + "-->";
+
+        Assertions.assertTrue(MappingSniffer.isMappingFile(write("large.xml", comment + "<project/>")));
+    }
+}
@@ -0,0 +1,113 @@
+package be.catsandcoding.dozer.components;
+
+import be.catsandcoding.dozer.Options;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+public class MappingWatcherTest {
+    private static final String MAPPINGS = "be/catsandcoding/dozer/mappings/";
+
+    @TempDir
+    Path tempDir;
+
+    private Path testClasses() throws Exception {
+        return Paths.get(getClass().getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    @Test
+    public void processChanges_mappingChanged_onlyThatFileVerified() throws Exception {
+        Path mappings = Files.createDirectories(tempDir.resolve("mappings"));
+        Path mapping = Files.copy(testClasses().resolve(MAPPINGS + "SuccessMapping.xml"), mappings.resolve("Mapping.xml"));
+        Files.copy(testClasses().resolve(MAPPINGS + "MainConfig.xml"), mappings.resolve("MainConfig.xml"));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try(Verifier verifier = new Verifier(new Options());
+            MappingWatcher watcher = new MappingWatcher(verifier, mappings, Collections.emptyList(), new PrintStream(output, true))) {
+            verifier.verify(mapping.toUri().toString());
+
+            Files.copy(testClasses().resolve(MAPPINGS + "FailureMappingFieldBNotFound.xml"), mapping, StandardCopyOption.REPLACE_EXISTING);
+
+            Assertions.assertTrue(watcher.processChanges(10, TimeUnit.SECONDS));
+            Assertions.assertTrue(output.toString().contains("does not have the necessary field notFound"));
+            Assertions.assertTrue(output.toString().contains("verified 1 changed file(s)"));
+        }
+    }
+
+    @Test
+    public void processChanges_mappingEditedTwice_reportsReplaceItsEntriesAndAreWritten() throws Exception {
+        Path mappings = Files.createDirectories(tempDir.resolve("mappings"));
+        Path mapping = Files.copy(testClasses().resolve(MAPPINGS + "SuccessMapping.xml"), mappings.resolve("Mapping.xml"));
+        String xml = new String(Files.readAllBytes(mapping), StandardCharsets.UTF_8);
+        Path costReport = tempDir.resolve("cost.json");
+        Path generated = tempDir.resolve("generated");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Options options = new Options().withPathToCostReport(costReport.toString()).withPathToGeneratedSources(generated.toString())
+                .withPathToMetricsReport(tempDir.resolve("metrics.json").toString());
+        try(Verifier verifier = new Verifier(options);
+            MappingWatcher watcher = new MappingWatcher(verifier, mappings, Collections.emptyList(), new PrintStream(output, true))) {
+            verifier.verify(mapping.toUri().toString());
+
+            Path source = generated.resolve(MAPPINGS + "PreSuccessToSuccessMapper.java");
+            // the one-way mapping sets another property, its mapper changes under the same name
+            Files.write(mapping, xml.replaceFirst("<b>success</b>", "<b>failure</b>").getBytes(StandardCharsets.UTF_8));
+            Assertions.assertTrue(watcher.processChanges(10, TimeUnit.SECONDS));
+            Assertions.assertTrue(new String(Files.readAllBytes(source), StandardCharsets.UTF_8).contains("setFailure"));
+
+            Files.write(mapping, xml.getBytes(StandardCharsets.UTF_8));
+            Assertions.assertTrue(watcher.processChanges(10, TimeUnit.SECONDS));
+
+            Assertions.assertTrue(new String(Files.readAllBytes(source), StandardCharsets.UTF_8).contains("setSuccess"));
+            String costs = new String(Files.readAllBytes(costReport), StandardCharsets.UTF_8);
+            Assertions.assertEquals(2, costs.split("\"rank\"", -1).length - 1, costs);
+            String metrics = new String(Files.readAllBytes(tempDir.resolve("metrics.json")), StandardCharsets.UTF_8);
+            Assertions.assertEquals(1, metrics.split("\"path\"", -1).length - 1, metrics);
+        }
+    }
+
+    @Test
+    public void processChanges_mappingChangedInExcludedDirectory_notWatched() throws Exception {
+        Path mappings = Files.createDirectories(tempDir.resolve("mappings"));
+        Path excluded = Files.createDirectories(mappings.resolve("target"));
+        Path mapping = Files.copy(testClasses().resolve(MAPPINGS + "SuccessMapping.xml"), excluded.resolve("Mapping.xml"));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Options options = new Options().withExcludes(Collections.singletonList("**/target/**"));
+        try(Verifier verifier = new Verifier(options);
+            MappingWatcher watcher = new MappingWatcher(verifier, mappings, Collections.emptyList(), new PrintStream(output, true))) {
+            Files.copy(testClasses().resolve(MAPPINGS + "FailureMappingFieldBNotFound.xml"), mapping, StandardCopyOption.REPLACE_EXISTING);
+
+            Assertions.assertFalse(watcher.processChanges(1, TimeUnit.SECONDS));
+            Assertions.assertEquals("", output.toString());
+        }
+    }
+
+    @Test
+    public void processChanges_classRewrittenUnchanged_nothingVerified() throws Exception {
+        Path mappings = Files.createDirectories(tempDir.resolve("mappings"));
+        Path mapping = Files.copy(testClasses().resolve(MAPPINGS + "SuccessMapping.xml"), mappings.resolve("Mapping.xml"));
+        Path classes = Files.createDirectories(tempDir.resolve("classes/" + MAPPINGS));
+        byte[] success = Files.readAllBytes(testClasses().resolve(MAPPINGS + "Success.class"));
+        Files.write(classes.resolve("Success.class"), success);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Options options = new Options().withClassPathDirectories(Collections.singletonList(tempDir.resolve("classes").toString()));
+        try(Verifier verifier = new Verifier(options);
+            MappingWatcher watcher = new MappingWatcher(verifier, mappings, Collections.singletonList(tempDir.resolve("classes")),
+                    new PrintStream(output, true))) {
+            verifier.verify(mapping.toUri().toString());
+
+            Files.write(classes.resolve("Success.class"), success);
+
+            Assertions.assertTrue(watcher.processChanges(10, TimeUnit.SECONDS));
+            Assertions.assertTrue(output.toString().contains("verified 0 changed file(s)"), output.toString());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package be.catsandcoding.dozer.components;
+
+import be.catsandcoding.dozer.mappings.Mazzeltje;
+import be.catsandcoding.dozer.mappings.Success;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.xml.bind.annotation.XmlElement;
+import java.util.Arrays;
+
+public class PropertyResolverTest {
+    public static class Parent {
+        @XmlElement(name = "lucky-one")
+        private Mazzeltje mazzeltje;
+    }
+
+    public static class Child extends Parent {
+        private Success success;
+
+        public Success getOutcome() {
+            return success;
+        }
+
+        public void setOutcome(Success success) {
+            this.success = success;
+        }
+    }
+
+    private final PropertyResolver propertyResolver = new PropertyResolver();
+
+    @Test
+    public void resolve_nestedPropertyThroughSuperclassField() {
+        PropertyResolver.Resolution actual = propertyResolver.resolve(Child.class, "mazzeltje.littleLuck", false);
+        Assertions.assertTrue(actual.getAccessor().isPresent());
+        Assertions.assertEquals("littleLuck", actual.getAccessor().get().getField().get().getName());
+        Assertions.assertEquals(Arrays.asList(Child.class, Mazzeltje.class), actual.getVisitedClasses());
+    }
+
+    @Test
+    public void resolve_nestedPropertyThroughSetter() {
+        PropertyResolver.Resolution actual = propertyResolver.resolve(Child.class, "outcome.failure", false);
+        Assertions.assertTrue(actual.getAccessor().isPresent());
+        Assertions.assertEquals(boolean.class, actual.getAccessor().get().getField().get().getType());
+    }
+
+    @Test
+    public void resolve_xmlElementName() {
+        PropertyResolver.Resolution actual = propertyResolver.resolve(Child.class, "lucky-one", false);
+        Assertions.assertEquals("mazzeltje", actual.getAccessor().get().getField().get().getName());
+    }
+
+    @Test
+    public void resolve_caseSensitivityIsPartOfTheKey() {
+        Assertions.assertFalse(propertyResolver.resolve(Mazzeltje.class, "LITTLELUCK", false).getAccessor().isPresent());
+        Assertions.assertTrue(propertyResolver.resolve(Mazzeltje.class, "LITTLELUCK", true).getAccessor().isPresent());
+    }
+
+    @Test
+    public void resolve_repeatedLookups_resolvedOnce() {
+        Assertions.assertSame(propertyResolver.resolve(Child.class, "outcome.success", false),
+                propertyResolver.resolve(Child.class, "outcome.success", false));
+        Assertions.assertSame(propertyResolver.resolve(Child.class, "notFound", false),
+                propertyResolver.resolve(Child.class, "notFound", false));
+    }
+}
@@ -0,0 +1,82 @@
+package be.catsandcoding.dozer.components;
+
+import be.catsandcoding.dozer.Options;
+import org.apache.tools.ant.BuildException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Objects;
+
+public class ShardsTest {
+    private static final int FILES = 8;
+
+    @TempDir
+    Path tempDir;
+
+    private Path mappingDirectory() throws Exception {
+        Path source = Paths.get(Objects.requireNonNull(Thread.currentThread().getContextClassLoader()
+                .getResource("be/catsandcoding/dozer/mappings/SuccessMapping.xml")).toURI());
+        Path mappings = Files.createDirectories(tempDir.resolve("mappings"));
+        for(int i = 0; i < FILES; i++){
+            Files.copy(source, mappings.resolve("Mapping" + i + ".xml"));
+        }
+        return mappings;
+    }
+
+    private VerificationMetrics walk(Path mappings, Options options) throws Exception {
+        try(Verifier verifier = new Verifier(options)) {
+            Files.walkFileTree(mappings, verifier);
+            verifier.awaitPendingVerifications();
+            return verifier.getMetrics();
+        }
+    }
+
+    @Test
+    public void merge_allShardsVerified_unshardedRunSkipsEverything() throws Exception {
+        Path mappings = mappingDirectory();
+        Options options = new Options().withPathToProgressKeepingFile(tempDir.resolve("progress").toString())
+                .withPathToMetricsReport(tempDir.resolve("metrics.json").toString())
+                .withShardCount(3);
+
+        long verified = 0;
+        for(int shardIndex = 0; shardIndex < 3; shardIndex++){
+            verified += walk(mappings, options.withShardIndex(shardIndex)).getCount(VerificationMetrics.Outcome.VERIFIED);
+        }
+        Assertions.assertEquals(FILES, verified);
+
+        Shards.merge(options);
+
+        VerificationMetrics unsharded = walk(mappings, options.withShardCount(1).withPathToMetricsReport(null));
+        Assertions.assertEquals(0, unsharded.getCount(VerificationMetrics.Outcome.VERIFIED));
+        Assertions.assertEquals(FILES, unsharded.getCount(VerificationMetrics.Outcome.SKIPPED));
+        String report = new String(Files.readAllBytes(tempDir.resolve("metrics.json")), StandardCharsets.UTF_8);
+        Assertions.assertTrue(report.contains("\"shardCount\": 3"), report);
+    }
+
+    @Test
+    public void merge_shardMissing_throwsBuildException() throws Exception {
+        Path mappings = mappingDirectory();
+        Options options = new Options().withPathToProgressKeepingFile(tempDir.resolve("progress").toString())
+                .withShardCount(2);
+        walk(mappings, options);
+
+        Assertions.assertThrows(BuildException.class, () -> Shards.merge(options));
+    }
+
+    @Test
+    public void contains_everyFileInExactlyOneShard() {
+        for(int i = 0; i < 100; i++){
+            String path = "mappings/Mapping" + i + ".xml";
+            int shards = 0;
+            for(int shardIndex = 0; shardIndex < 4; shardIndex++){
+                shards += Shards.contains(shardIndex, 4, path) ? 1 : 0;
+            }
+            Assertions.assertEquals(1, shards);
+        }
+    }
+}
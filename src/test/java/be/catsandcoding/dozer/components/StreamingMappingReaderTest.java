@@ -0,0 +1,65 @@
+package be.catsandcoding.dozer.components;
+
+import be.catsandcoding.dozer.generated.Configuration;
+import be.catsandcoding.dozer.generated.Mapping;
+import be.catsandcoding.dozer.generated.Mappings;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class StreamingMappingReaderTest {
+    private final List<Mapping> mappings = new ArrayList<>();
+    private final List<Configuration> configurations = new ArrayList<>();
+
+    private void read(InputStream in) throws JAXBException {
+        new StreamingMappingReader(JAXBContext.newInstance(Mappings.class).createUnmarshaller())
+                .read(in, configurations::add, mappings::add);
+    }
+
+    private InputStream resource(String path){
+        return Thread.currentThread().getContextClassLoader().getResourceAsStream(path);
+    }
+
+    @Test
+    public void read_mappings_handedOverOneByOne() throws JAXBException {
+        read(resource("be/catsandcoding/dozer/mappings/SuccessMapping.xml"));
+
+        Assertions.assertEquals(2, mappings.size());
+        Assertions.assertEquals("be.catsandcoding.dozer.mappings.PreSuccess", mappings.get(0).getClassA().getContent());
+        Assertions.assertEquals("be.catsandcoding.dozer.mappings.Mazzeltje", mappings.get(1).getClassA().getContent());
+        Assertions.assertTrue(configurations.isEmpty());
+    }
+
+    @Test
+    public void read_configuration() throws JAXBException {
+        read(resource("be/catsandcoding/dozer/mappings/MainConfig.xml"));
+
+        Assertions.assertEquals(1, configurations.size());
+        Assertions.assertEquals("be.catsandcoding.dozer.CustomConverter",
+                configurations.get(0).getCustomConverters().getConverter().get(0).getType());
+        Assertions.assertTrue(mappings.isEmpty());
+    }
+
+    @Test
+    public void read_elementsWithoutWhitespaceInBetween() throws JAXBException {
+        String xml = "<mappings xmlns=\"http://dozer.sourceforge.net\"><mapping><class-a>A</class-a><class-b>B</class-b></mapping>"
+                + "<mapping><class-a>C</class-a><class-b>D</class-b></mapping></mappings>";
+        read(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+
+        Assertions.assertEquals(2, mappings.size());
+        Assertions.assertEquals("C", mappings.get(1).getClassA().getContent());
+    }
+
+    @Test
+    public void read_otherXml_throwsJAXBException() {
+        String xml = "<project xmlns=\"http://maven.apache.org/POM/4.0.0\"><modelVersion>4.0.0</modelVersion></project>";
+        Assertions.assertThrows(JAXBException.class, () -> read(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8))));
+    }
+}
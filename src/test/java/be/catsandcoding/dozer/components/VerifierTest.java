@@ -0,0 +1,170 @@
+package be.catsandcoding.dozer.components;
+
+import be.catsandcoding.dozer.Options;
+import org.apache.tools.ant.BuildException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.xml.bind.DatatypeConverter;
+import javax.xml.bind.JAXBException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+public class VerifierTest {
+    @TempDir
+    Path tempDir;
+
+    private Path copyOfMapping(String name) throws Exception {
+        Path source = Paths.get(Objects.requireNonNull(Thread.currentThread().getContextClassLoader()
+                .getResource("be/catsandcoding/dozer/mappings/" + name)).toURI());
+        return Files.copy(source, tempDir.resolve(name));
+    }
+
+    @Test
+    public void verify_unchangedSizeAndLastModified_skippedWithoutParsing() throws Exception {
+        Path mapping = copyOfMapping("SuccessMapping.xml");
+        String progressFile = tempDir.resolve("progress").toString();
+        try(Verifier verifier = new Verifier(new Options().withPathToProgressKeepingFile(progressFile))) {
+            verifier.verify(mapping.toUri().toString());
+        }
+
+        // same size and modification time but no longer parsable: only skipped if it is never parsed
+        FileTime lastModified = Files.getLastModifiedTime(mapping);
+        byte[] garbage = new byte[(int) Files.size(mapping)];
+        Arrays.fill(garbage, (byte) 'x');
+        Files.write(mapping, garbage);
+        Files.setLastModifiedTime(mapping, lastModified);
+        try(Verifier verifier = new Verifier(new Options().withPathToProgressKeepingFile(progressFile))) {
+            verifier.verify(mapping.toUri().toString());
+        }
+
+        Files.setLastModifiedTime(mapping, FileTime.fromMillis(lastModified.toMillis() + 10_000));
+        try(Verifier verifier = new Verifier(new Options().withPathToProgressKeepingFile(progressFile))) {
+            Assertions.assertThrows(JAXBException.class, () -> verifier.verify(mapping.toUri().toString()));
+        }
+    }
+
+    @Test
+    public void verify_referencedClassChanged_verifiedAgain() throws Exception {
+        Path mapping = copyOfMapping("SuccessMapping.xml");
+        Path classes = tempDir.resolve("classes");
+        Path preSuccess = classes.resolve("be/catsandcoding/dozer/mappings/PreSuccess.class");
+        Files.createDirectories(preSuccess.getParent());
+        Files.copy(Paths.get(Objects.requireNonNull(Thread.currentThread().getContextClassLoader()
+                .getResource("be/catsandcoding/dozer/mappings/PreSuccess.class")).toURI()), preSuccess);
+        Options options = new Options().withClassPathDirectories(Collections.singletonList(classes.toString()))
+                .withPathToProgressKeepingFile(tempDir.resolve("progress").toString());
+        try(Verifier verifier = new Verifier(options)) {
+            verifier.verify(mapping.toUri().toString());
+        }
+
+        // size and modification time of the mapping are unchanged, it is only parsed because a class it depends on changed
+        FileTime lastModified = Files.getLastModifiedTime(mapping);
+        byte[] garbage = new byte[(int) Files.size(mapping)];
+        Arrays.fill(garbage, (byte) 'x');
+        Files.write(mapping, garbage);
+        Files.setLastModifiedTime(mapping, lastModified);
+        Files.write(preSuccess, new byte[]{0}, StandardOpenOption.APPEND);
+        try(Verifier verifier = new Verifier(options)) {
+            Assertions.assertThrows(JAXBException.class, () -> verifier.verify(mapping.toUri().toString()));
+        }
+    }
+
+    @Test
+    public void getJaxbContext_sharedByAllVerifiers() throws Exception {
+        Assertions.assertSame(Verifier.getJaxbContext(), Verifier.getJaxbContext());
+    }
+
+    @Test
+    public void getChecksum_largeFile_sameAsDigestOfAllBytes() throws Exception {
+        byte[] content = new byte[3 * 1024 * 1024 + 17];
+        for(int i = 0; i < content.length; i++){
+            content[i] = (byte) (i % 251);
+        }
+        Path file = Files.write(tempDir.resolve("large.xml"), content);
+
+        String expected = DatatypeConverter.printHexBinary(MessageDigest.getInstance("MD5").digest(content));
+        Assertions.assertEquals(expected, Verifier.getChecksum(file));
+    }
+
+    @Test
+    public void close_metricsReportConfigured_writesCountsPerOutcome() throws Exception {
+        Path mapping = copyOfMapping("SuccessMapping.xml");
+        Path report = tempDir.resolve("metrics.json");
+        Options options = new Options().withPathToProgressKeepingFile(tempDir.resolve("progress").toString())
+                .withPathToMetricsReport(report.toString());
+        VerificationMetrics metrics;
+        try(Verifier verifier = new Verifier(options)) {
+            verifier.verify(mapping.toUri().toString());
+            verifier.verify(mapping.toUri().toString());
+            metrics = verifier.getMetrics();
+        }
+
+        Assertions.assertEquals(1, metrics.getCount(VerificationMetrics.Outcome.VERIFIED));
+        Assertions.assertEquals(1, metrics.getCount(VerificationMetrics.Outcome.SKIPPED));
+        Assertions.assertTrue(metrics.getCaches().get("classes").getMisses() > 0);
+        String json = new String(Files.readAllBytes(report), StandardCharsets.UTF_8);
+        Assertions.assertTrue(json.contains("\"files\": {\"verified\": 1, \"skipped\": 1, \"failed\": 0}"), json);
+        Assertions.assertTrue(json.contains("\"path\": \"" + mapping.toUri() + "\""), json);
+    }
+
+    @Test
+    public void verify_sameMappingsInSeveralFiles_checkedOnceAndReportedPerFile() throws Exception {
+        Path first = copyOfMapping("FailureMappingFieldBNotFound.xml");
+        Path second = Files.copy(first, tempDir.resolve("Copy.xml"));
+        try(Verifier verifier = new Verifier(new Options())) {
+            for(Path mapping: Arrays.asList(first, second)){
+                String path = mapping.toUri().toString();
+                BuildException actual = Assertions.assertThrows(BuildException.class, () -> verifier.verify(path));
+                Assertions.assertEquals(String.format("Problem with mapping%n%s [class-b]: %s does not have the necessary field %s",
+                        path, "be.catsandcoding.dozer.mappings.Success", "notFound"), actual.getMessage());
+                Assertions.assertTrue(actual.getCause() instanceof BuildException, String.valueOf(actual.getCause()));
+            }
+            CacheStatistics verdicts = verifier.getMetrics().getCaches().get("verdicts");
+            Assertions.assertEquals(1, verdicts.getMisses());
+            Assertions.assertEquals(1, verdicts.getHits());
+        }
+    }
+
+    @Test
+    public void verify_mappingInJar_readInPlaceAndSkippedOnCrc() throws Exception {
+        Path jar = tempDir.resolve("mappings.jar");
+        try(OutputStream out = Files.newOutputStream(jar); ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry("be/catsandcoding/dozer/mappings/SuccessMapping.xml"));
+            zip.write(Files.readAllBytes(copyOfMapping("SuccessMapping.xml")));
+            zip.closeEntry();
+        }
+        String path = "jar:" + jar.toUri() + "!/be/catsandcoding/dozer/mappings/SuccessMapping.xml";
+        Options options = new Options().withPathToProgressKeepingFile(tempDir.resolve("progress").toString());
+        VerificationMetrics metrics;
+        try(Verifier verifier = new Verifier(options)) {
+            verifier.verify(path);
+            verifier.verify(path);
+            metrics = verifier.getMetrics();
+        }
+
+        Assertions.assertEquals(1, metrics.getCount(VerificationMetrics.Outcome.VERIFIED));
+        Assertions.assertEquals(1, metrics.getCount(VerificationMetrics.Outcome.SKIPPED));
+    }
+
+    @Test
+    public void verify_classpathResource_foundThroughClassPath() throws Exception {
+        try(Verifier verifier = new Verifier(new Options())) {
+            verifier.verify("classpath:be/catsandcoding/dozer/mappings/SuccessMapping.xml");
+            verifier.verify("be/catsandcoding/dozer/mappings/SuccessMapping.xml");
+            Assertions.assertEquals(2, verifier.getMetrics().getCount(VerificationMetrics.Outcome.VERIFIED));
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package be.catsandcoding.dozer.generator;
+
+import org.dozer.DozerConverter;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Generates a corpus of Dozer mapping files, valid against beanmapping.xsd, together with the compiled bean and
+ * converter classes they refer to. Used to look at the verification at production scale.
+ * <p>
+ * Mappings draw their class-a and class-b from a pool of bean classes. Every bean has {@code fieldsPerMapping}
+ * properties, alternately {@code String} and {@code Integer}, and a chain of {@code nestingDepth} child beans that
+ * repeat those properties; field j of a mapping is reached through {@code j % (nestingDepth + 1)} levels of
+ * {@code child}. The share of fields using a custom converter is set by the converter density.
+ */
+public class MappingCorpusGenerator {
+    public static final String PACKAGE = "be.catsandcoding.dozer.corpus";
+    private static final int NUMBER_OF_CONVERTERS = 5;
+
+    private int numberOfFiles = 1;
+    private int mappingsPerFile = 10;
+    private int fieldsPerMapping = 5;
+    private int nestingDepth = 0;
+    private double converterDensity = 0.0;
+    private int numberOfBeanClasses = 20;
+    private long seed = 42;
+
+    public MappingCorpusGenerator withNumberOfFiles(int numberOfFiles){
+        MappingCorpusGenerator generator = copy();
+        generator.numberOfFiles = numberOfFiles;
+        return generator;
+    }
+
+    public MappingCorpusGenerator withMappingsPerFile(int mappingsPerFile){
+        MappingCorpusGenerator generator = copy();
+        generator.mappingsPerFile = mappingsPerFile;
+        return generator;
+    }
+
+    public MappingCorpusGenerator withFieldsPerMapping(int fieldsPerMapping){
+        MappingCorpusGenerator generator = copy();
+        generator.fieldsPerMapping = fieldsPerMapping;
+        return generator;
+    }
+
+    public MappingCorpusGenerator withNestingDepth(int nestingDepth){
+        MappingCorpusGenerator generator = copy();
+        generator.nestingDepth = nestingDepth;
+        return generator;
+    }
+
+    /**
+     * @param converterDensity the share of fields, between 0 and 1, that use a custom converter
+     */
+    public MappingCorpusGenerator withConverterDensity(double converterDensity){
+        MappingCorpusGenerator generator = copy();
+        generator.converterDensity = converterDensity;
+        return generator;
+    }
+
+    public MappingCorpusGenerator withNumberOfBeanClasses(int numberOfBeanClasses){
+        MappingCorpusGenerator generator = copy();
+        generator.numberOfBeanClasses = numberOfBeanClasses;
+        return generator;
+    }
+
+    public MappingCorpusGenerator withSeed(long seed){
+        MappingCorpusGenerator generator = copy();
+        generator.seed = seed;
+        return generator;
+    }
+
+    private MappingCorpusGenerator copy(){
+        MappingCorpusGenerator generator = new MappingCorpusGenerator();
+        generator.numberOfFiles = numberOfFiles;
+        generator.mappingsPerFile = mappingsPerFile;
+        generator.fieldsPerMapping = fieldsPerMapping;
+        generator.nestingDepth = nestingDepth;
+        generator.converterDensity = converterDensity;
+        generator.numberOfBeanClasses = numberOfBeanClasses;
+        generator.seed = seed;
+        return generator;
+    }
+
+    /**
+     * Writes the sources, classes and mapping files in separate subdirectories of the given directory.
+     */
+    public Corpus generate(Path directory) throws IOException {
+        Path sources = Files.createDirectories(directory.resolve("sources"));
+        Path classes = Files.createDirectories(directory.resolve("classes"));
+        Path mappings = Files.createDirectories(directory.resolve("mappings"));
+
+        List<Path> sourceFiles = writeSources(sources);
+        compile(sourceFiles, classes);
+
+        Random random = new Random(seed);
+        List<Path> mappingFiles = new ArrayList<>();
+        for(int file = 0; file < numberOfFiles; file++){
+            mappingFiles.add(writeMappingFile(mappings.resolve(String.format("mapping-%05d.xml", file)), file, random));
+        }
+        return new Corpus(classes, mappings, mappingFiles);
+    }
+
+    private List<Path> writeSources(Path sources) throws IOException {
+        Path packageDirectory = Files.createDirectories(sources.resolve(PACKAGE.replace('.', File.separatorChar)));
+        List<Path> sourceFiles = new ArrayList<>();
+        for(int bean = 0; bean < numberOfBeanClasses; bean++){
+            for(int level = 0; level <= nestingDepth; level++){
+                String className = beanClassName(bean, level);
+                String childClassName = level < nestingDepth ? beanClassName(bean, level + 1) : null;
+                sourceFiles.add(write(packageDirectory.resolve(className + ".java"), beanSource(className, childClassName)));
+            }
+        }
+        for(int converter = 0; converter < NUMBER_OF_CONVERTERS; converter++){
+            for(String type: Arrays.asList("String", "Integer")){
+                String className = converterClassName(type, converter);
+                sourceFiles.add(write(packageDirectory.resolve(className + ".java"), converterSource(className, type)));
+            }
+        }
+        return sourceFiles;
+    }
+
+    private static String beanClassName(int bean, int level){
+        return level == 0 ? "Bean" + bean : "Bean" + bean + "Level" + level;
+    }
+
+    private static String converterClassName(String type, int converter){
+        return type + "Converter" + converter;
+    }
+
+    private static String fieldType(int field){
+        return field % 2 == 0 ? "String" : "Integer";
+    }
+
+    private String beanSource(String className, String childClassName){
+        StringBuilder source = new StringBuilder("package " + PACKAGE + ";\n\npublic class " + className + " {\n");
+        List<String[]> properties = new ArrayList<>();
+        for(int field = 0; field < fieldsPerMapping; field++){
+            properties.add(new String[]{fieldType(field), "field" + field});
+        }
+        if(childClassName != null){
+            properties.add(new String[]{childClassName, "child"});
+        }
+        for(String[] property: properties){
+            source.append("    private ").append(property[0]).append(' ').append(property[1]).append(";\n");
+        }
+        for(String[] property: properties){
+            String capitalized = Character.toUpperCase(property[1].charAt(0)) + property[1].substring(1);
+            source.append("\n    public ").append(property[0]).append(" get").append(capitalized).append("() {\n")
+                    .append("        return ").append(property[1]).append(";\n    }\n")
+                    .append("\n    public void set").append(capitalized).append('(').append(property[0]).append(" value) {\n")
+                    .append("        this.").append(property[1]).append(" = value;\n    }\n");
+        }
+        return source.append("}\n").toString();
+    }
+
+    private static String converterSource(String className, String type){
+        return "package " + PACKAGE + ";\n\n"
+                + "public class " + className + " extends " + DozerConverter.class.getName() + "<" + type + ", " + type + "> {\n"
+                + "    public " + className + "() {\n"
+                + "        super(" + type + ".class, " + type + ".class);\n"
+                + "    }\n\n"
+                + "    @Override\n"
+                + "    public " + type + " convertTo(" + type + " source, " + type + " destination) {\n"
+                + "        return source;\n"
+                + "    }\n\n"
+                + "    @Override\n"
+                + "    public " + type + " convertFrom(" + type + " source, " + type + " destination) {\n"
+                + "        return source;\n"
+                + "    }\n"
+                + "}\n";
+    }
+
+    private static Path write(Path file, String content) throws IOException {
+        return Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void compile(List<Path> sourceFiles, Path classes) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if(compiler == null){
+            throw new IllegalStateException("generating a corpus needs a JDK, no Java compiler available");
+        }
+        String classPath;
+        try {
+            classPath = Paths.get(DozerConverter.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+
+        StringWriter diagnostics = new StringWriter();
+        try(StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            boolean compiled = compiler.getTask(diagnostics, fileManager, null,
+                    Arrays.asList("-classpath", classPath, "-d", classes.toString(), "-nowarn"), null,
+                    fileManager.getJavaFileObjectsFromFiles(sourceFiles.stream().map(Path::toFile).collect(Collectors.toList())))
+                    .call();
+            if(!compiled){
+                throw new IllegalStateException("could not compile the generated classes: " + diagnostics);
+            }
+        }
+    }
+
+    private Path writeMappingFile(Path file, int fileIndex, Random random) throws IOException {
+        try(Writer writer = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))){
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            writer.write("<mappings xmlns=\"http://dozer.sourceforge.net\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n"
+                    + "          xsi:schemaLocation=\"http://dozer.sourceforge.net http://dozer.sourceforge.net/schema/beanmapping.xsd\">\n");
+            if(fileIndex == 0 && converterDensity > 0){
+                writer.write("    <configuration>\n        <custom-converters>\n");
+                for(int converter = 0; converter < NUMBER_OF_CONVERTERS; converter++){
+                    for(String type: Arrays.asList("String", "Integer")) {
+                        writer.write("            <converter type=\"" + PACKAGE + "." + converterClassName(type, converter) + "\">\n"
+                                + "                <class-a>java.lang." + type + "</class-a>\n"
+                                + "                <class-b>java.lang." + type + "</class-b>\n"
+                                + "            </converter>\n");
+                    }
+                }
+                writer.write("        </custom-converters>\n    </configuration>\n");
+            }
+            for(int mapping = 0; mapping < mappingsPerFile; mapping++){
+                int classA = random.nextInt(numberOfBeanClasses);
+                int classB = random.nextInt(numberOfBeanClasses);
+                writer.write("    <mapping>\n");
+                writer.write("        <class-a>" + PACKAGE + "." + beanClassName(classA, 0) + "</class-a>\n");
+                writer.write("        <class-b>" + PACKAGE + "." + beanClassName(classB, 0) + "</class-b>\n");
+                for(int field = 0; field < fieldsPerMapping; field++){
+                    String path = String.join("", Collections.nCopies(field % (nestingDepth + 1), "child.")) + "field" + field;
+                    String converter = random.nextDouble() < converterDensity ?
+                            " custom-converter=\"" + PACKAGE + "." + converterClassName(fieldType(field), random.nextInt(NUMBER_OF_CONVERTERS)) + "\"" : "";
+                    writer.write("        <field" + converter + ">\n");
+                    writer.write("            <a>" + path + "</a>\n");
+                    writer.write("            <b>" + path + "</b>\n");
+                    writer.write("        </field>\n");
+                }
+                writer.write("    </mapping>\n");
+            }
+            writer.write("</mappings>\n");
+        }
+        return file;
+    }
+
+    public static final class Corpus {
+        private final Path classesDirectory;
+        private final Path mappingDirectory;
+        private final List<Path> mappingFiles;
+
+        private Corpus(Path classesDirectory, Path mappingDirectory, List<Path> mappingFiles){
+            this.classesDirectory = classesDirectory;
+            this.mappingDirectory = mappingDirectory;
+            this.mappingFiles = Collections.unmodifiableList(mappingFiles);
+        }
+
+        /**
+         * @return the classpath directory holding the compiled beans and converters
+         */
+        public Path getClassesDirectory() {
+            return classesDirectory;
+        }
+
+        public Path getMappingDirectory() {
+            return mappingDirectory;
+        }
+
+        public List<Path> getMappingFiles() {
+            return mappingFiles;
+        }
+
+        /**
+         * @return the mapping files as the URIs the Verifier expects
+         */
+        public List<String> getMappingFileUris() {
+            return mappingFiles.stream().map(path -> path.toUri().toString()).collect(Collectors.toList());
+        }
+    }
+}
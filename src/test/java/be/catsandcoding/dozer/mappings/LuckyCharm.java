@@ -0,0 +1,16 @@
+package be.catsandcoding.dozer.mappings;
+
+import be.catsandcoding.dozer.charms.Charm;
+import be.catsandcoding.dozer.charms.Clover;
+
+public class LuckyCharm extends Charm {
+    private Clover clover;
+
+    public Clover getClover() {
+        return clover;
+    }
+
+    public void setClover(Clover clover) {
+        this.clover = clover;
+    }
+}